@@ -174,9 +174,12 @@
     listOf(
         "fabric-api-base",
         "fabric-api-lookup-api-v1",
+        "fabric-command-api-v2",
         "fabric-gametest-api-v1",
         "fabric-item-api-v1",
+        "fabric-lifecycle-events-v1",
         "fabric-models-v0",
+        "fabric-recipe-api-v1",
         "fabric-renderer-api-v1",
         "fabric-rendering-data-attachment-v1",
         "fabric-rendering-fluids-v1",
@@ -27,6 +27,7 @@
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.block.entity.MultiblockControllerBlockEntity;
 import dev.galacticraft.machinelib.api.machine.configuration.AccessLevel;
 import dev.galacticraft.machinelib.api.machine.configuration.RedstoneMode;
 import dev.galacticraft.machinelib.api.machine.configuration.SecuritySettings;
@@ -35,7 +36,7 @@
 import dev.galacticraft.machinelib.api.util.ItemStackUtil;
 import dev.galacticraft.machinelib.client.api.util.DisplayUtil;
 import dev.galacticraft.machinelib.impl.Constant;
-import dev.galacticraft.machinelib.impl.block.entity.MachineBlockEntityTicker;
+import dev.galacticraft.machinelib.impl.block.entity.MachineTickManager;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -46,6 +47,7 @@
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
@@ -173,6 +175,16 @@ public void neighborChanged(BlockState state, Level level, BlockPos pos, Block b
         if (!level.isClientSide) {
             if (level.getBlockEntity(pos) instanceof MachineBlockEntity machine) {
                 machine.getState().setPowered(level.hasNeighborSignal(pos));
+                machine.wake();
+                if (machine instanceof MultiblockControllerBlockEntity controller) {
+                    controller.onStructureChanged(fromPos);
+                }
+            }
+            // only a block being placed, removed or replaced can change which storages border the machine
+            // (the block passed in is the one that was at fromPos before the update), so redstone and other state updates are ignored
+            if (level.getBlockState(fromPos).getBlock() != block) {
+                MachineTickManager manager = MachineTickManager.getIfPresent((ServerLevel) level);
+                if (manager != null) manager.invalidateIslands();
             }
         }
     }
@@ -260,6 +272,7 @@ public void appendHoverText(ItemStack stack, BlockGetter view, List<Component> t
         if (!world.isClientSide) {
             BlockEntity entity = world.getBlockEntity(pos);
             if (entity instanceof MachineBlockEntity machine) {
+                machine.hydrate();
                 SecuritySettings security = machine.getSecurity();
                 if (!security.hasOwner()) {
                     security.setOwner(player.getUUID(), player.getGameProfile().getName()); //todo: teams
@@ -279,6 +292,7 @@ public BlockState playerWillDestroy(Level world, BlockPos pos, BlockState state,
         super.playerWillDestroy(world, pos, state, player);
         BlockEntity entity = world.getBlockEntity(pos);
         if (entity instanceof MachineBlockEntity machine) {
+            machine.hydrate();
             if (!machine.areDropsDisabled()) {
                 MachineItemStorage inv = machine.itemStorage();
                 List<ItemEntity> entities = new ArrayList<>();
@@ -318,10 +332,16 @@ public BlockState playerWillDestroy(Level world, BlockPos pos, BlockState state,
         return stack;
     }
 
+    /**
+     * Machines are not ticked by vanilla.
+     * Instead, they are ticked in bulk by their level's {@link MachineTickManager}.
+     *
+     * @return {@code null}
+     */
     @Nullable
     @Override
     public <B extends BlockEntity> BlockEntityTicker<B> getTicker(Level world, BlockState state, BlockEntityType<B> type) {
-        return !world.isClientSide ? MachineBlockEntityTicker.getInstance() : null;
+        return null;
     }
 
     /**
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.block;
+
+import com.google.common.base.Suppliers;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import dev.galacticraft.machinelib.api.block.entity.MultiblockControllerBlockEntity;
+import dev.galacticraft.machinelib.api.block.entity.MultiblockMemberBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.BaseEntityBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.BlockHitResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * A block that is part of a multiblock machine.
+ * Using the block opens the menu of its controller, and changes next to it are forwarded to the controller
+ * so that it can re-validate its structure.
+ *
+ * @see MultiblockMemberBlockEntity
+ * @see MultiblockControllerBlockEntity
+ */
+public class MultiblockMemberBlock extends BaseEntityBlock {
+    public static final MapCodec<MultiblockMemberBlock> CODEC = RecordCodecBuilder.mapCodec(instance -> instance.group(
+            propertiesCodec(),
+            ResourceLocation.CODEC.fieldOf("factory").forGetter(block -> BuiltInRegistries.BLOCK_ENTITY_TYPE.getKey(block.factory.get()))
+    ).apply(instance, MultiblockMemberBlock::new));
+
+    /**
+     * Factory that constructs the member block entity for this block.
+     */
+    private final Supplier<BlockEntityType<? extends MultiblockMemberBlockEntity>> factory;
+
+    /**
+     * Creates a new multiblock member block.
+     *
+     * @param settings  The settings for the block.
+     * @param factoryId the member block entity factory
+     */
+    public MultiblockMemberBlock(Properties settings, ResourceLocation factoryId) {
+        super(settings);
+        this.factory = Suppliers.memoize(() -> (BlockEntityType<? extends MultiblockMemberBlockEntity>) BuiltInRegistries.BLOCK_ENTITY_TYPE.get(factoryId));
+    }
+
+    @Override
+    public MultiblockMemberBlockEntity newBlockEntity(BlockPos pos, BlockState state) {
+        return this.factory.get().create(pos, state);
+    }
+
+    @Override
+    protected MapCodec<? extends BaseEntityBlock> codec() {
+        return CODEC;
+    }
+
+    @Override
+    public @NotNull RenderShape getRenderShape(BlockState state) {
+        return RenderShape.MODEL;
+    }
+
+    @Override
+    public @NotNull InteractionResult use(BlockState state, @NotNull Level world, BlockPos pos, Player player, InteractionHand hand, BlockHitResult hit) {
+        if (world.getBlockEntity(pos) instanceof MultiblockMemberBlockEntity member) {
+            if (world.isClientSide) return InteractionResult.SUCCESS;
+            MultiblockControllerBlockEntity controller = member.getFormedController();
+            if (controller != null && controller.getBlockState().getBlock() instanceof MachineBlock<?> block) {
+                return block.use(controller.getBlockState(), world, controller.getBlockPos(), player, hand, hit);
+            }
+        }
+        return InteractionResult.PASS;
+    }
+
+    @Override
+    public void neighborChanged(BlockState state, Level level, BlockPos pos, Block block, BlockPos fromPos, boolean notify) {
+        super.neighborChanged(state, level, pos, block, fromPos, notify);
+        if (!level.isClientSide && level.getBlockEntity(pos) instanceof MultiblockMemberBlockEntity member) {
+            MultiblockControllerBlockEntity controller = member.getController();
+            if (controller != null) controller.onStructureChanged(fromPos);
+        }
+    }
+}
@@ -25,14 +25,17 @@
 import dev.galacticraft.machinelib.api.machine.MachineType;
 import dev.galacticraft.machinelib.api.menu.RecipeMachineMenu;
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Recipe;
 import net.minecraft.world.item.crafting.RecipeHolder;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A machine block entity that processes recipes.
@@ -51,6 +54,39 @@
     protected final int outputSlots;
     protected final int outputSlotsLen;
 
+    /**
+     * The recipe whose result was last assembled, or {@code null} if there is none.
+     *
+     * @see #getAssembledResult(RecipeHolder)
+     */
+    @ApiStatus.Internal
+    private @Nullable RecipeHolder<R> assembledRecipe = null;
+
+    /**
+     * The last assembled result, reused until the input slots are modified.
+     */
+    @ApiStatus.Internal
+    private @NotNull ItemStack assembledResult = ItemStack.EMPTY;
+
+    /**
+     * The total modification count of the input slots when the result was assembled.
+     */
+    @ApiStatus.Internal
+    private long assembledModifications = -1;
+
+    /**
+     * The result of the recipe being crafted, assembled before its materials were extracted.
+     */
+    @ApiStatus.Internal
+    private @Nullable ItemStack craftingResult = null;
+
+    /**
+     * The recipe that {@link #craftingResult} was assembled from.
+     * The result is only used when the same recipe is output, so a subclass that skips either half does not output a stale result.
+     */
+    @ApiStatus.Internal
+    private @Nullable RecipeHolder<R> craftingRecipe = null;
+
     /**
      * Constructs a new machine block entity that processes recipes.
      *
@@ -127,8 +163,11 @@ protected BasicRecipeMachineBlockEntity(@NotNull MachineType<? extends BasicReci
      */
     @Override
     protected void outputStacks(@NotNull RecipeHolder<R> recipe) {
-        ItemStack assembled = recipe.value().assemble(this.craftingInv(), this.level.registryAccess());
-        this.itemStorage().insertMatching(this.outputSlots, this.outputSlotsLen, assembled.getItem(), assembled.getTag(), assembled.getCount());
+        ItemStack assembled = this.craftingResult != null && this.craftingRecipe == recipe ? this.craftingResult : this.getAssembledResult(recipe);
+        this.craftingResult = null;
+        this.craftingRecipe = null;
+        CompoundTag tag = assembled.getTag();
+        this.itemStorage().insertMatching(this.outputSlots, this.outputSlotsLen, assembled.getItem(), tag == null ? null : tag.copy(), assembled.getCount());
     }
 
     /**
@@ -139,7 +178,7 @@ protected void outputStacks(@NotNull RecipeHolder<R> recipe) {
      */
     @Override
     protected boolean canOutputStacks(@NotNull RecipeHolder<R> recipe) {
-        ItemStack assembled = recipe.value().assemble(this.craftingInv(), this.level.registryAccess());
+        ItemStack assembled = this.getAssembledResult(recipe);
         return this.itemStorage().canInsert(this.outputSlots, this.outputSlotsLen, assembled.getItem(), assembled.getTag(), assembled.getCount());
     }
 
@@ -150,8 +189,75 @@ protected boolean canOutputStacks(@NotNull RecipeHolder<R> recipe) {
      */
     @Override
     protected void extractCraftingMaterials(@NotNull RecipeHolder<R> recipe) {
+        this.craftingResult = null; // never keep the result of an earlier craft, even if assembling fails
+        this.craftingRecipe = recipe;
+        this.craftingResult = this.getAssembledResult(recipe);
         for (int i = 0; i < this.inputSlotsLen; i++) {
             this.itemStorage().consumeOne(this.inputSlots + i);
         }
     }
+
+    /**
+     * Sums the modification counts of the recipe input slots.
+     *
+     * @return the number of times the recipe inputs have been modified.
+     */
+    @Override
+    protected long getRecipeInputModifications() {
+        return this.getModifications(this.inputSlots, this.inputSlotsLen);
+    }
+
+    /**
+     * Sums the modification counts of the recipe output slots.
+     *
+     * @return the number of times the recipe outputs have been modified.
+     */
+    @Override
+    protected long getRecipeOutputModifications() {
+        return this.getModifications(this.outputSlots, this.outputSlotsLen);
+    }
+
+    private long getModifications(int start, int len) {
+        long modifications = 0;
+        for (int i = 0; i < len; i++) {
+            modifications += this.itemStorage().getSlot(start + i).getModifications();
+        }
+        return modifications;
+    }
+
+    /**
+     * Returns the result of the given recipe for the current contents of the crafting inventory.
+     * The result is cached until the input slots are modified or a different recipe is assembled,
+     * unless {@link #canCacheAssembledResult(RecipeHolder)} returns {@code false}.
+     * The returned stack must not be modified.
+     *
+     * @param recipe The recipe to assemble.
+     * @return The result of the recipe.
+     */
+    protected @NotNull ItemStack getAssembledResult(@NotNull RecipeHolder<R> recipe) {
+        if (!this.canCacheAssembledResult(recipe)) {
+            return recipe.value().assemble(this.craftingInv(), this.level.registryAccess());
+        }
+
+        long modifications = this.getRecipeInputModifications();
+        if (this.assembledRecipe != recipe || this.assembledModifications != modifications) {
+            this.assembledResult = recipe.value().assemble(this.craftingInv(), this.level.registryAccess());
+            this.assembledRecipe = recipe;
+            this.assembledModifications = modifications;
+        }
+        return this.assembledResult;
+    }
+
+    /**
+     * Returns whether the result of a recipe may be reused until the input slots are modified.
+     * Results that depend on the inputs' tags are still cached correctly, as changing a tag modifies the slot.
+     * Override this to return {@code false} for recipes whose result depends on anything else
+     * (such as the level, randomness or slots outside of the input slots).
+     *
+     * @param recipe The recipe to assemble.
+     * @return {@code true} if the assembled result may be cached, {@code false} otherwise.
+     */
+    protected boolean canCacheAssembledResult(@NotNull RecipeHolder<R> recipe) {
+        return true;
+    }
 }
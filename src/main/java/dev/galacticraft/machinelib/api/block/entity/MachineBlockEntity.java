@@ -24,6 +24,11 @@
 
 import dev.galacticraft.machinelib.api.block.MachineBlock;
 import dev.galacticraft.machinelib.api.compat.transfer.ExposedStorage;
+import dev.galacticraft.machinelib.api.config.Config;
+import dev.galacticraft.machinelib.api.event.MachineEvent;
+import dev.galacticraft.machinelib.api.event.MachineEventBus;
+import dev.galacticraft.machinelib.api.event.MachineEventType;
+import dev.galacticraft.machinelib.api.event.MachineListeners;
 import dev.galacticraft.machinelib.api.machine.MachineState;
 import dev.galacticraft.machinelib.api.machine.MachineStatus;
 import dev.galacticraft.machinelib.api.machine.MachineType;
@@ -32,6 +37,7 @@
 import dev.galacticraft.machinelib.api.machine.configuration.RedstoneMode;
 import dev.galacticraft.machinelib.api.machine.configuration.SecuritySettings;
 import dev.galacticraft.machinelib.api.menu.MachineMenu;
+import dev.galacticraft.machinelib.api.metrics.MachineTimings;
 import dev.galacticraft.machinelib.api.misc.AdjacentBlockApiCache;
 import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
 import dev.galacticraft.machinelib.api.storage.MachineFluidStorage;
@@ -39,12 +45,18 @@
 import dev.galacticraft.machinelib.api.storage.slot.FluidResourceSlot;
 import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
 import dev.galacticraft.machinelib.api.transfer.ResourceFlow;
+import dev.galacticraft.machinelib.api.transfer.ResourceType;
 import dev.galacticraft.machinelib.api.util.BlockFace;
 import dev.galacticraft.machinelib.api.util.StorageHelper;
 import dev.galacticraft.machinelib.client.api.render.MachineRenderData;
 import dev.galacticraft.machinelib.client.api.screen.MachineScreen;
 import dev.galacticraft.machinelib.impl.Constant;
 import dev.galacticraft.machinelib.impl.MachineLib;
+import dev.galacticraft.machinelib.impl.block.entity.MachineTickManager;
+import dev.galacticraft.machinelib.impl.block.entity.SteadyStateDetector;
+import dev.galacticraft.machinelib.impl.jfr.MachineTickEvent;
+import dev.galacticraft.machinelib.impl.jfr.ResourceTransferEvent;
+import dev.galacticraft.machinelib.impl.replay.MachineRecorder;
 import io.netty.buffer.Unpooled;
 import net.fabricmc.fabric.api.blockview.v2.RenderDataBlockEntity;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
@@ -66,9 +78,12 @@
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Recipe;
 import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -80,7 +95,10 @@
 import team.reborn.energy.api.EnergyStorage;
 import team.reborn.energy.api.EnergyStorageUtil;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -176,6 +194,17 @@ public abstract class MachineBlockEntity extends BlockEntity implements Extended
     @ApiStatus.Internal
     private boolean disableDrops = false;
 
+    /**
+     * The saved data of a machine placed by a structure that nobody has interacted with yet, or {@code null} if the machine is not dormant.
+     * Dormant machines are not ticked and their data is not deserialized. It is saved back exactly as it was loaded.
+     *
+     * @see #isDormant()
+     * @see #hydrate()
+     * @see Config#dormantStructureMachines()
+     */
+    @ApiStatus.Internal
+    private @Nullable CompoundTag dormantData = null;
+
     /**
      * Whether the machine is currently active/working.
      * This covers both working/state active and redstone activity control.
@@ -184,6 +213,201 @@ public abstract class MachineBlockEntity extends BlockEntity implements Extended
      */
     private boolean active = false;
 
+    /**
+     * The number of ticks this machine has reported an inactive status while its block is still active.
+     * The block is only switched to inactive once this reaches the configured cooldown,
+     * so that machines flickering between working and idle do not cause a block update every tick.
+     *
+     * @see Config#activeStateCooldown()
+     */
+    @ApiStatus.Internal
+    private int inactiveTicks = 0;
+
+    /**
+     * Whether the machine is currently parked and skipped by the ticker.
+     * A machine falls asleep after a tick that reported an inactive status without changing any of its storages.
+     *
+     * @see #isSleeping()
+     * @see #wake()
+     */
+    @ApiStatus.Internal
+    private boolean sleeping = false;
+
+    /**
+     * Whether any of the machine's storages were modified since the start of the current tick.
+     */
+    @ApiStatus.Internal
+    private boolean storageChanged = false;
+
+    /**
+     * The number of menus currently open for this machine.
+     * Machines with viewers never sleep.
+     */
+    @ApiStatus.Internal
+    private int viewers = 0;
+
+    /**
+     * Whether the machine is currently being ticked off the server thread.
+     * While deferring, the machine may not access the level. Block updates are postponed until
+     * {@link #commitDeferred(ServerLevel)} and resources are only transferred to {@link #deferredNeighbors adjacent machines}.
+     *
+     * @see #supportsParallelTicking()
+     */
+    @ApiStatus.Internal
+    private boolean deferring = false;
+
+    /**
+     * The machines adjacent to this machine (indexed by direction ordinal) while {@link #deferring}.
+     */
+    @ApiStatus.Internal
+    private @Nullable MachineBlockEntity @Nullable [] deferredNeighbors = null;
+
+    /**
+     * Whether the machine is currently being ticked.
+     * Calls to {@link #setChanged()} are coalesced and flushed once at the end of the tick.
+     */
+    @ApiStatus.Internal
+    private boolean ticking = false;
+
+    /**
+     * Whether {@link #setChanged()} was called since the machine was last marked as changed in the level.
+     *
+     * @see #flushChanges()
+     */
+    @ApiStatus.Internal
+    private boolean changePending = false;
+
+    /**
+     * Whether this machine is queued to flush its changes at the end of the level tick.
+     * Set when the machine is changed outside of its own tick.
+     */
+    @ApiStatus.Internal
+    private boolean changeQueued = false;
+
+    /**
+     * Whether the active state of the machine changed while {@link #deferring}.
+     */
+    @ApiStatus.Internal
+    private boolean deferredActiveState = false;
+
+    /**
+     * The events posted while {@link #deferring}, dispatched on the server thread once the machine is committed.
+     */
+    @ApiStatus.Internal
+    private @Nullable List<Runnable> deferredEvents = null;
+
+    /**
+     * The number of ticks simulated by the current update.
+     * Greater than one when the machine is ticked at a reduced rate.
+     *
+     * @see #getUpdateTicks()
+     */
+    @ApiStatus.Internal
+    private int updateTicks = 1;
+
+    /**
+     * The game time at which this machine was last saved, or {@code -1} if unknown.
+     * Used to catch up on the ticks missed while the machine's chunk was unloaded.
+     *
+     * @see #getMaxCatchUpTicks()
+     */
+    @ApiStatus.Internal
+    private long saveTime = -1;
+
+    /**
+     * The time spent in the last update of this machine, in nanoseconds.
+     */
+    @ApiStatus.Internal
+    private long lastUpdateNanos = 0;
+
+    /**
+     * The number of ticks simulated by the last update of this machine.
+     */
+    @ApiStatus.Internal
+    private int lastUpdateTicks = 1;
+
+    /**
+     * The phase that took the longest during the last update of this machine, and its duration.
+     */
+    @ApiStatus.Internal
+    private @NotNull MachineTimings.Phase slowestPhase = MachineTimings.Phase.TICK;
+    @ApiStatus.Internal
+    private long slowestPhaseNanos = -1;
+
+    /**
+     * The time spent in each phase during the last update of this machine, in nanoseconds.
+     * Indexed by {@link MachineTimings.Phase#ordinal()}.
+     */
+    @ApiStatus.Internal
+    private final long[] lastPhaseNanos = new long[MachineTimings.Phase.values().length];
+
+    /**
+     * The number of missed ticks to simulate on the next update.
+     *
+     * @see #getMaxCatchUpTicks()
+     */
+    @ApiStatus.Internal
+    private int catchUpTicks = 0;
+
+    /**
+     * The periodic tasks of this machine.
+     *
+     * @see #schedulePeriodic(String, int, PeriodicTask)
+     */
+    @ApiStatus.Internal
+    private final List<ScheduledTask> periodicTasks = new ArrayList<>(0);
+
+    /**
+     * Detects when the machine keeps repeating the same cycle, so that its intermediate ticks can be skipped.
+     *
+     * @see Config#steadyStateFastForward()
+     */
+    @ApiStatus.Internal
+    private final SteadyStateDetector steadyState = new SteadyStateDetector();
+
+    /**
+     * The number of ticks simulated by each update while the machine is fast-forwarding, or {@code 0} if it is not.
+     * Fast-forwarding ends as soon as the machine is changed from the outside.
+     *
+     * @see #getFastForwardStride()
+     */
+    @ApiStatus.Internal
+    private int fastForwardStride = 0;
+
+    /**
+     * The status of the machine when it started fast-forwarding.
+     */
+    @ApiStatus.Internal
+    private @Nullable MachineStatus steadyStatus = null;
+
+    /**
+     * The energy and modification counts of the machine's storages at the start of the current update.
+     */
+    @ApiStatus.Internal
+    private long energyBefore = 0;
+    @ApiStatus.Internal
+    private long energyModificationsBefore = 0;
+    @ApiStatus.Internal
+    private long itemModificationsBefore = 0;
+    @ApiStatus.Internal
+    private long fluidModificationsBefore = 0;
+
+    /**
+     * The listeners registered for this machine on the {@link MachineEventBus}.
+     */
+    @ApiStatus.Internal
+    private @Nullable MachineListeners listeners = null;
+
+    /**
+     * Which of the machine's storages were empty (low bits) and full (high bits) after the last update,
+     * or {@code -1} if this is not being tracked.
+     *
+     * @see MachineEventType#STORAGE_EMPTIED
+     * @see MachineEventType#STORAGE_FILLED
+     */
+    @ApiStatus.Internal
+    private int storageFlags = -1;
+
     /**
      * Constructs a new machine block entity with the text automatically derived from the passed {@link BlockState}.
      *
@@ -213,11 +437,11 @@ protected MachineBlockEntity(@NotNull MachineType<? extends MachineBlockEntity,
         this.state = MachineState.create();
 
         this.energyStorage = type.createEnergyStorage();
-        this.energyStorage.setListener(this::setChanged);
+        this.energyStorage.setListener(this::onStorageChanged);
         this.itemStorage = type.createItemStorage();
-        this.itemStorage.setListener(this::setChanged);
+        this.itemStorage.setListener(this::onStorageChanged);
         this.fluidStorage = type.createFluidStorage();
-        this.fluidStorage.setListener(this::setChanged);
+        this.fluidStorage.setListener(this::onStorageChanged);
     }
 
     /**
@@ -260,9 +484,9 @@ public static void registerComponents(@NotNull Block... blocks) {
     }
 
     /**
-     * The maximum amount of energy that the machine can insert into items in its inventory (per transaction).
+     * The maximum amount of energy that the machine can insert into items in its inventory (per tick).
      *
-     * @return The maximum amount of energy that the machine can insert into items in its inventory (per transaction).
+     * @return The maximum amount of energy that the machine can insert into items in its inventory (per tick).
      * @see #drainPowerToStack(int)
      * @see #getEnergyItemExtractionRate()
      */
@@ -272,9 +496,9 @@ public long getEnergyItemInsertionRate() {
     }
 
     /**
-     * The maximum amount of energy that the machine can extract from items in its inventory (per transaction).
+     * The maximum amount of energy that the machine can extract from items in its inventory (per tick).
      *
-     * @return The maximum amount of energy that the machine can extract from items in its inventory (per transaction).
+     * @return The maximum amount of energy that the machine can extract from items in its inventory (per tick).
      * @see #chargeFromStack(int)
      * @see #getEnergyItemInsertionRate()
      */
@@ -405,6 +629,7 @@ public boolean isDisabled() {
 
     /**
      * Updates the machine every tick.
+     * Called by the level's {@link MachineTickManager}.
      *
      * @param level    the world.
      * @param pos      the position of this machine.
@@ -414,36 +639,708 @@ public boolean isDisabled() {
      * @see #tickConstant(ServerLevel, BlockPos, BlockState, ProfilerFiller) for the server-side logic that is always called.
      */
     public final void tickBase(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler) {
+        this.tickBase(level, pos, state, profiler, 1);
+    }
+
+    /**
+     * Updates the machine, simulating the given number of ticks at once.
+     * Used when the machine is ticked at a reduced rate (e.g. when it is far away from any player).
+     * <p>
+     * {@link #tickConstant(ServerLevel, BlockPos, BlockState, ProfilerFiller)} and
+     * {@link #tickDisabled(ServerLevel, BlockPos, BlockState, ProfilerFiller)} are called once per update.
+     * The built-in helpers they use scale with the number of ticks: item charge/drain rates are multiplied by it,
+     * and {@link #trySpreadEnergy(ServerLevel, BlockState) resource pushes} are repeated once per tick.
+     * Other per-tick work (such as burning fuel) must be scaled by {@link #getUpdateTicks()} to keep the same throughput.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     * @param ticks    the number of ticks that have passed since the last update.
+     * @see #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller, int)
+     */
+    public final void tickBase(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        MachineTickEvent event = new MachineTickEvent();
+        event.begin();
+        if (this.beginTick(level, pos, state, profiler, ticks)) {
+            profiler.push("active");
+            long start = System.nanoTime();
+            MachineStatus status = this.tick(level, pos, state, profiler, ticks);
+            this.recordPhase(MachineTimings.Phase.TICK, System.nanoTime() - start);
+            profiler.pop();
+            this.updateStatus(level, pos, state, status, ticks);
+        }
+        this.endTick(event, ticks);
+    }
+
+    /**
+     * Starts an update of this machine: runs {@link #tickConstant(ServerLevel, BlockPos, BlockState, ProfilerFiller)}
+     * and, if the machine is disabled, {@link #tickDisabled(ServerLevel, BlockPos, BlockState, ProfilerFiller)}.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     * @param ticks    the number of ticks that have passed since the last update.
+     * @return whether the machine is enabled and should be ticked.
+     * @see #endTick(MachineTickEvent, int)
+     */
+    @ApiStatus.Internal
+    boolean beginTick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        MachineRecorder recorder = MachineRecorder.current();
+        if (recorder != null) recorder.beforeUpdate(this, ticks);
+        this.ticking = true;
+        this.storageChanged = false;
+        this.updateTicks = ticks;
+        this.lastUpdateNanos = 0;
+        this.lastUpdateTicks = ticks;
+        this.slowestPhaseNanos = -1;
+        Arrays.fill(this.lastPhaseNanos, 0);
+        this.energyBefore = this.energyStorage.getAmount();
+        this.energyModificationsBefore = this.energyStorage.getModifications();
+        this.itemModificationsBefore = this.itemStorage.getModifications();
+        this.fluidModificationsBefore = this.fluidStorage.getModifications();
         this.setBlockState(state);
         profiler.push("constant");
+        long start = System.nanoTime();
         this.tickConstant(level, pos, state, profiler);
+        if (!this.periodicTasks.isEmpty()) {
+            this.runPeriodicTasks(level, pos, state, profiler, ticks);
+        }
+        this.recordPhase(MachineTimings.Phase.CONSTANT, System.nanoTime() - start);
         profiler.pop();
         if (this.isDisabled()) {
             if (this.active) {
-                MachineBlock.updateActiveState(level, pos, state, this.active = false);
+                this.setActive(level, pos, state, false);
             }
             profiler.push("disabled");
+            start = System.nanoTime();
             this.tickDisabled(level, pos, state, profiler);
+            this.recordPhase(MachineTimings.Phase.DISABLED, System.nanoTime() - start);
             profiler.pop();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Schedules a task to run every {@code interval} ticks, right after {@link #tickConstant(ServerLevel, BlockPos, BlockState, ProfilerFiller)}.
+     * Each machine runs its tasks at a stable {@link #getPhaseOffset(int) offset} within the interval, so that
+     * machines loaded at the same time do not all perform their periodic work on the same tick.
+     * <p>
+     * Tasks should be scheduled in the constructor of the machine.
+     *
+     * @param name     the name of the task, used for profiling.
+     * @param interval the number of ticks between runs of the task.
+     * @param task     the task to run.
+     */
+    protected final void schedulePeriodic(@NotNull String name, int interval, @NotNull PeriodicTask task) {
+        if (interval < 1) throw new IllegalArgumentException("Interval must be positive, got " + interval);
+        this.periodicTasks.add(new ScheduledTask(name, interval, task));
+    }
+
+    /**
+     * Returns the offset of this machine's periodic work within an interval, derived from its position.
+     * Machines run their periodic tasks on the ticks where {@code (gameTime + offset) % interval == 0}.
+     *
+     * @param interval the interval of the work.
+     * @return the offset of this machine, between {@code 0} and {@code interval - 1}.
+     */
+    public final int getPhaseOffset(int interval) {
+        return Math.floorMod(this.worldPosition.hashCode(), interval);
+    }
+
+    /**
+     * Runs the periodic tasks that became due during the current update.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     * @param ticks    the number of ticks simulated by the update.
+     */
+    @ApiStatus.Internal
+    private void runPeriodicTasks(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        long time = level.getGameTime();
+        int tasks = 0;
+        for (ScheduledTask task : this.periodicTasks) {
+            int offset = this.getPhaseOffset(task.interval());
+            long runs = Math.floorDiv(time + offset, task.interval()) - Math.floorDiv(time - ticks + offset, task.interval());
+            if (runs > 0) {
+                profiler.push(task.name());
+                task.task().run(level, pos, state, (int) runs);
+                profiler.pop();
+                tasks++;
+            }
+        }
+        if (tasks > 0) {
+            MachineTickManager manager = MachineTickManager.getIfPresent(level);
+            if (manager != null) manager.recordPeriodicWork(tasks);
+        }
+    }
+
+    /**
+     * Records the duration of a phase of the current update.
+     *
+     * @param phase the phase.
+     * @param nanos the duration of the phase, in nanoseconds.
+     */
+    @ApiStatus.Internal
+    void recordPhase(@NotNull MachineTimings.Phase phase, long nanos) {
+        this.type.getTimings().record(phase, nanos);
+        this.lastPhaseNanos[phase.ordinal()] += nanos;
+        this.lastUpdateNanos += nanos;
+        if (nanos > this.slowestPhaseNanos) {
+            this.slowestPhaseNanos = nanos;
+            this.slowestPhase = phase;
+        }
+    }
+
+    /**
+     * Records the duration of a phase that runs inside another phase of the current update,
+     * such as resource transfers during {@link #tickConstant(ServerLevel, BlockPos, BlockState, ProfilerFiller)}.
+     * The duration is not added to the total time of the update, as the enclosing phase already accounts for it.
+     *
+     * @param phase the nested phase.
+     * @param nanos the duration of the phase, in nanoseconds.
+     */
+    @ApiStatus.Internal
+    void recordNestedPhase(@NotNull MachineTimings.Phase phase, long nanos) {
+        this.type.getTimings().record(phase, nanos);
+        this.lastPhaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Returns the time spent in the given phase during the last update of this machine.
+     *
+     * @param phase the phase.
+     * @return the duration of the phase during the last update, in nanoseconds.
+     */
+    @ApiStatus.Internal
+    public long getLastPhaseNanos(@NotNull MachineTimings.Phase phase) {
+        return this.lastPhaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Returns the time spent in the last update of this machine.
+     *
+     * @return the duration of the last update, in nanoseconds.
+     */
+    @ApiStatus.Internal
+    public long getLastUpdateNanos() {
+        return this.lastUpdateNanos;
+    }
+
+    /**
+     * Returns the number of ticks simulated by the last update of this machine.
+     *
+     * @return the number of ticks simulated by the last update.
+     */
+    @ApiStatus.Internal
+    public int getLastUpdateTicks() {
+        return this.lastUpdateTicks;
+    }
+
+    /**
+     * Returns the phase that took the longest during the last update of this machine.
+     *
+     * @return the slowest phase of the last update.
+     */
+    @ApiStatus.Internal
+    public @NotNull MachineTimings.Phase getSlowestPhase() {
+        return this.slowestPhase;
+    }
+
+    /**
+     * Applies the status reported by an update and switches the active state of the block accordingly.
+     *
+     * @param level  the world.
+     * @param pos    the position of this machine.
+     * @param state  the block state of this machine.
+     * @param status the status reported by the update.
+     * @param ticks  the number of ticks simulated by the update.
+     */
+    @ApiStatus.Internal
+    void updateStatus(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull MachineStatus status, int ticks) {
+        MachineStatus previous = this.state.getStatus();
+        this.state.setStatus(status);
+        if (previous != status) {
+            if (this.hasListeners(MachineEventType.STATUS_CHANGED)) {
+                this.postEvent(MachineEventType.STATUS_CHANGED, new MachineEvent.StatusChanged(this, previous, status));
+            }
+            if (status.getType() == MachineStatus.Type.MISSING_ENERGY && (previous == null || previous.getType() != MachineStatus.Type.MISSING_ENERGY)
+                    && this.hasListeners(MachineEventType.ENERGY_DEPLETED)) {
+                this.postEvent(MachineEventType.ENERGY_DEPLETED, new MachineEvent.EnergyDepleted(this, status));
+            }
+        }
+        if (!this.active) {
+            if (this.state.isActive()) {
+                this.setActive(level, pos, state, true);
+            }
+        } else if (this.state.isActive()) {
+            if (this.inactiveTicks > 0) {
+                this.inactiveTicks = 0;
+                this.type.getTimings().recordSuppressedActiveStateChange();
+            }
         } else {
-            profiler.push("active");
-            this.state.setStatus(this.tick(level, pos, state, profiler));
-            profiler.pop();
-            if (!this.active) {
-                if (this.state.isActive()) {
-                    MachineBlock.updateActiveState(level, pos, state, this.active = true);
-                }
+            this.inactiveTicks += ticks;
+            if (this.inactiveTicks >= MachineLib.CONFIG.activeStateCooldown()) {
+                this.setActive(level, pos, state, false);
+            }
+        }
+    }
+
+    /**
+     * Finishes an update of this machine: puts it to sleep if it is idle, checks whether it reached a steady state and flushes its changes.
+     *
+     * @param event the flight recorder event of the update.
+     * @param ticks the number of ticks simulated by the update.
+     * @see #beginTick(ServerLevel, BlockPos, BlockState, ProfilerFiller, int)
+     */
+    @ApiStatus.Internal
+    void endTick(@NotNull MachineTickEvent event, int ticks) {
+        if (!this.active && !this.storageChanged && this.viewers == 0 && this.mayFallAsleep()) {
+            this.sleeping = true;
+        }
+        this.updateSteadyState(ticks);
+        this.updateStorageFlags();
+        MachineRecorder recorder = MachineRecorder.current();
+        if (recorder != null) recorder.afterUpdate(this);
+        this.updateTicks = 1;
+        this.ticking = false;
+        if (!this.deferring) {
+            this.flushChanges();
+        }
+
+        if (event.shouldCommit()) {
+            event.setMachine(this);
+            event.ticks = ticks;
+            event.status = this.state.getStatusText(this.getRedstoneMode()).getString();
+            event.commit();
+        }
+    }
+
+    /**
+     * Feeds the last update to the steady state detector, and starts or stops fast-forwarding the machine.
+     * Only machines that support {@link #getMaxCatchUpTicks() catching up} are fast-forwarded,
+     * as each fast-forwarded update simulates many ticks at once.
+     *
+     * @param ticks the number of ticks simulated by the update.
+     * @see Config#steadyStateFastForward()
+     */
+    @ApiStatus.Internal
+    private void updateSteadyState(int ticks) {
+        if (this.fastForwardStride > 0) {
+            if (this.sleeping || this.state.getStatus() != this.steadyStatus) {
+                this.stopFastForward();
+            }
+            return;
+        }
+
+        if (ticks != 1 || this.sleeping || this.viewers > 0 || !MachineLib.CONFIG.steadyStateFastForward() || this.getMaxCatchUpTicks() <= 1) {
+            return;
+        }
+
+        long signature = System.identityHashCode(this.state.getStatus());
+        signature = 31 * signature + (this.energyStorage.getAmount() - this.energyBefore);
+        signature = 31 * signature + (this.energyStorage.getModifications() - this.energyModificationsBefore);
+        signature = 31 * signature + (this.itemStorage.getModifications() - this.itemModificationsBefore);
+        signature = 31 * signature + (this.fluidStorage.getModifications() - this.fluidModificationsBefore);
+
+        int period = this.steadyState.record(signature);
+        if (period > 0) {
+            int limit = Math.min(MachineLib.CONFIG.steadyStateMaxStride(), this.getMaxCatchUpTicks());
+            if (period <= limit) {
+                this.fastForwardStride = period * (limit / period);
+                this.steadyStatus = this.state.getStatus();
+            }
+            this.steadyState.reset();
+        }
+    }
+
+    /**
+     * Posts {@link MachineEventType#STORAGE_EMPTIED} and {@link MachineEventType#STORAGE_FILLED} events
+     * for the storages that became empty or full during the last update.
+     * Nothing is tracked while neither event type has listeners.
+     */
+    @ApiStatus.Internal
+    private void updateStorageFlags() {
+        if (!this.hasListeners(MachineEventType.STORAGE_EMPTIED) && !this.hasListeners(MachineEventType.STORAGE_FILLED)) {
+            this.storageFlags = -1;
+            return;
+        }
+
+        int flags = 0;
+        if (this.energyStorage.isEmpty()) flags |= 0b1;
+        if (this.itemStorage.isEmpty()) flags |= 0b10;
+        if (this.fluidStorage.isEmpty()) flags |= 0b100;
+        if (this.energyStorage.isFull()) flags |= 0b1000;
+        if (this.itemStorage.isFull()) flags |= 0b10000;
+        if (this.fluidStorage.isFull()) flags |= 0b100000;
+
+        int previous = this.storageFlags;
+        this.storageFlags = flags;
+        if (previous == -1) return;
+        int changed = flags & ~previous;
+        if (changed == 0) return;
+
+        if (this.hasListeners(MachineEventType.STORAGE_EMPTIED)) {
+            if ((changed & 0b1) != 0) this.postEvent(MachineEventType.STORAGE_EMPTIED, new MachineEvent.StorageEmptied(this, ResourceType.ENERGY));
+            if ((changed & 0b10) != 0) this.postEvent(MachineEventType.STORAGE_EMPTIED, new MachineEvent.StorageEmptied(this, ResourceType.ITEM));
+            if ((changed & 0b100) != 0) this.postEvent(MachineEventType.STORAGE_EMPTIED, new MachineEvent.StorageEmptied(this, ResourceType.FLUID));
+        }
+        if (this.hasListeners(MachineEventType.STORAGE_FILLED)) {
+            if ((changed & 0b1000) != 0) this.postEvent(MachineEventType.STORAGE_FILLED, new MachineEvent.StorageFilled(this, ResourceType.ENERGY));
+            if ((changed & 0b10000) != 0) this.postEvent(MachineEventType.STORAGE_FILLED, new MachineEvent.StorageFilled(this, ResourceType.ITEM));
+            if ((changed & 0b100000) != 0) this.postEvent(MachineEventType.STORAGE_FILLED, new MachineEvent.StorageFilled(this, ResourceType.FLUID));
+        }
+    }
+
+    /**
+     * Returns whether an event of the given type posted by this machine would reach any listener.
+     * Checked before creating an event, so machines nobody listens to never allocate one.
+     *
+     * @param type the type of event.
+     * @return whether any listener would receive the event.
+     */
+    @ApiStatus.Internal
+    boolean hasListeners(@NotNull MachineEventType<?> type) {
+        return MachineEventBus.hasListeners(this, type);
+    }
+
+    /**
+     * Posts an event on the {@link MachineEventBus}.
+     * Events posted while the machine is ticked off the server thread are held back until it is committed,
+     * so that listeners are always called on the server thread.
+     *
+     * @param type  the type of event.
+     * @param event the event.
+     * @param <E>   the type of event.
+     */
+    @ApiStatus.Internal
+    <E extends MachineEvent> void postEvent(@NotNull MachineEventType<E> type, @NotNull E event) {
+        if (this.deferring) {
+            if (this.deferredEvents == null) this.deferredEvents = new ArrayList<>(2);
+            this.deferredEvents.add(() -> MachineEventBus.post(type, event));
+        } else {
+            MachineEventBus.post(type, event);
+        }
+    }
+
+    /**
+     * Returns the listeners registered for this machine on the {@link MachineEventBus}.
+     *
+     * @param create whether to create the listeners if none have been registered yet.
+     * @return the listeners registered for this machine, or {@code null} if there are none and {@code create} is {@code false}.
+     */
+    @ApiStatus.Internal
+    @Contract("true -> !null")
+    public @Nullable MachineListeners getListeners(boolean create) {
+        if (this.listeners == null && create) {
+            this.listeners = new MachineListeners();
+        }
+        return this.listeners;
+    }
+
+    /**
+     * Stops fast-forwarding this machine, and forgets its previous ticks.
+     */
+    @ApiStatus.Internal
+    private void stopFastForward() {
+        this.fastForwardStride = 0;
+        this.steadyStatus = null;
+        this.steadyState.reset();
+    }
+
+    /**
+     * Returns the number of ticks to skip between updates of this machine, as it is in a steady state.
+     *
+     * @return the number of ticks simulated by each update, or {@code 0} if the machine is not fast-forwarding.
+     */
+    @ApiStatus.Internal
+    public int getFastForwardStride() {
+        return this.fastForwardStride;
+    }
+
+    /**
+     * Returns the number of ticks simulated by the current update.
+     * This is {@code 1} unless the machine is being ticked at a reduced rate.
+     *
+     * @return the number of ticks simulated by the current update.
+     * @see #tickBase(ServerLevel, BlockPos, BlockState, ProfilerFiller, int)
+     */
+    protected int getUpdateTicks() {
+        return this.updateTicks;
+    }
+
+    /**
+     * Updates the active state of this machine and its block.
+     *
+     * @param level  the level.
+     * @param pos    the position of this machine.
+     * @param state  the block state of this machine.
+     * @param active whether the machine is now active.
+     */
+    @ApiStatus.Internal
+    private void setActive(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, boolean active) {
+        this.active = active;
+        this.inactiveTicks = 0;
+        this.type.getTimings().recordActiveStateChange();
+        if (this.hasListeners(MachineEventType.ACTIVE_CHANGED)) {
+            this.postEvent(MachineEventType.ACTIVE_CHANGED, new MachineEvent.ActiveChanged(this, active));
+        }
+        if (this.deferring) {
+            this.deferredActiveState = true;
+        } else {
+            MachineBlock.updateActiveState(level, pos, state, active);
+        }
+    }
+
+    /**
+     * Returns whether this machine may be ticked off the server thread, in parallel with other machines.
+     * <p>
+     * Machines are only ticked in parallel when parallel ticking is enabled in the config
+     * and the machine's island (the set of machines connected to it through adjacency) does not border any other storage.
+     * An island that borders any non-machine storage is ticked serially on the server thread as a whole,
+     * rather than having only its transfers to that storage applied in a separate serial phase.
+     * Implementations that return {@code true} must not access the level while ticking
+     * (other than through {@link #trySpreadEnergy(ServerLevel, BlockState)} and similar helpers)
+     * and must only modify their own storages.
+     * <p>
+     * Block updates and {@link MachineEventBus machine events} caused by parallel machines are applied on the server thread
+     * after the parallel phase. Timings and the shared recipe caches are thread-safe.
+     * Parallel islands are always ticked in full: they are not cut short by the machine tick budget,
+     * but the time they take is charged to it, so serial machines may be deferred instead.
+     *
+     * @return whether this machine may be ticked in parallel.
+     */
+    public boolean supportsParallelTicking() {
+        return false;
+    }
+
+    /**
+     * Prepares this machine to be ticked off the server thread.
+     *
+     * @param neighbors the machines adjacent to this machine, indexed by direction ordinal.
+     * @see #commitDeferred(ServerLevel)
+     */
+    @ApiStatus.Internal
+    public void beginDeferred(@Nullable MachineBlockEntity @NotNull [] neighbors) {
+        this.deferring = true;
+        this.deferredNeighbors = neighbors;
+    }
+
+    /**
+     * Applies the block updates postponed while this machine was ticked off the server thread.
+     * Must be called on the server thread.
+     *
+     * @param level the level this machine is in.
+     * @see #beginDeferred(MachineBlockEntity[])
+     */
+    @ApiStatus.Internal
+    public void commitDeferred(@NotNull ServerLevel level) {
+        this.deferring = false;
+        this.deferredNeighbors = null;
+        if (this.deferredActiveState) {
+            this.deferredActiveState = false;
+            MachineBlock.updateActiveState(level, this.worldPosition, this.getBlockState(), this.active);
+        }
+        if (this.deferredEvents != null) {
+            List<Runnable> events = this.deferredEvents;
+            this.deferredEvents = null;
+            events.forEach(Runnable::run);
+        }
+        this.flushChanges();
+    }
+
+    /**
+     * Marks this machine as changed.
+     * <p>
+     * Changes made while the machine is ticking are collected and applied once at the end of its tick.
+     * Outside of ticking, the first change is applied immediately (so that the chunk is always saved)
+     * and further changes are applied once at the end of the level tick.
+     */
+    @Override
+    public void setChanged() {
+        if (this.ticking || this.deferring) {
+            this.changePending = true;
+        } else if (this.level instanceof ServerLevel serverLevel && !this.isRemoved()) {
+            if (this.changeQueued) {
+                this.changePending = true;
             } else {
-                if (!this.state.isActive()) {
-                    MachineBlock.updateActiveState(level, pos, state, this.active = false);
-                }
+                this.changeQueued = true;
+                super.setChanged();
+                MachineTickManager.get(serverLevel).queueChanged(this);
+            }
+        } else {
+            super.setChanged();
+        }
+    }
+
+    /**
+     * Applies the changes collected by {@link #setChanged()}, if there are any.
+     * Must be called on the server thread.
+     */
+    @ApiStatus.Internal
+    public void flushChanges() {
+        this.changeQueued = false;
+        if (this.changePending) {
+            this.changePending = false;
+            super.setChanged();
+        }
+    }
+
+    /**
+     * Registers this machine with its level's {@link MachineTickManager} when it is added to a server level.
+     * Dormant machines are only registered once they are {@link #hydrate() hydrated}.
+     */
+    @Override
+    public void clearRemoved() {
+        super.clearRemoved();
+        if (this.level instanceof ServerLevel serverLevel && this.dormantData == null) {
+            if (this.saveTime >= 0) {
+                this.catchUpTicks = (int) Math.max(0, Math.min(serverLevel.getGameTime() - this.saveTime, this.getMaxCatchUpTicks()));
+                this.saveTime = -1;
             }
+            MachineTickManager.get(serverLevel).add(this);
         }
     }
 
+    /**
+     * Returns the maximum number of ticks this machine may fast-forward when its chunk is loaded again.
+     * <p>
+     * When a machine that supports catch-up is loaded, the time that passed since it was saved
+     * (capped to this value) is added to its next update, which is simulated in bulk through
+     * {@link #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller, int)}.
+     * Only override this if that method advances the machine analytically.
+     *
+     * @return the maximum number of ticks to catch up on, or {@code 0} to disable catch-up (the default).
+     */
+    public int getMaxCatchUpTicks() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of missed ticks to add to the next update and resets it.
+     *
+     * @return the number of missed ticks to catch up on.
+     */
+    @ApiStatus.Internal
+    public int takeCatchUpTicks() {
+        int ticks = this.catchUpTicks;
+        this.catchUpTicks = 0;
+        return ticks;
+    }
+
+    /**
+     * Unregisters this machine from its level's {@link MachineTickManager} when it is removed or unloaded,
+     * and drops the listeners registered for it on the {@link MachineEventBus}.
+     */
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if (this.level instanceof ServerLevel serverLevel) {
+            MachineTickManager manager = MachineTickManager.getIfPresent(serverLevel);
+            if (manager != null) manager.remove(this);
+        }
+        if (this.listeners != null) {
+            MachineEventBus.clear(this.listeners);
+            this.listeners = null;
+        }
+    }
+
+    /**
+     * Returns whether this machine is allowed to fall asleep after an idle tick.
+     * Sleeping machines are not ticked until they are {@link #wake() woken} by a storage modification of the machine itself,
+     * a neighbor/redstone update or a player opening the machine's menu.
+     * <p>
+     * Sleeping is opt-in: this returns {@code false} by default.
+     * Only override this to return {@code true} while the machine has no work left that could be unblocked by anything else
+     * (e.g. not while it burns fuel, or while it holds outputs that it pushes to its neighbors in
+     * {@link #tickConstant(ServerLevel, BlockPos, BlockState, ProfilerFiller)}, as a neighboring inventory draining does not wake it).
+     *
+     * @return whether this machine is allowed to sleep.
+     * @see #wake()
+     */
+    protected boolean canSleep() {
+        return false;
+    }
+
+    /**
+     * Returns whether this machine may fall asleep after an idle update.
+     * Base classes use this to veto sleeping regardless of {@link #canSleep()}.
+     *
+     * @return whether this machine may fall asleep.
+     */
+    @ApiStatus.Internal
+    boolean mayFallAsleep() {
+        return this.canSleep();
+    }
+
+    /**
+     * Returns whether this machine is currently sleeping.
+     *
+     * @return whether this machine is currently sleeping.
+     * @see #canSleep()
+     */
+    public boolean isSleeping() {
+        return this.sleeping;
+    }
+
+    /**
+     * Wakes this machine, so that it will be ticked again.
+     *
+     * @see #canSleep()
+     */
+    public void wake() {
+        this.sleeping = false;
+        this.stopFastForward();
+    }
+
+    /**
+     * Called when any of this machine's storages are modified.
+     * Wakes the machine and marks it as changed. Modifications from outside of an update also end fast-forwarding.
+     */
+    @ApiStatus.Internal
+    private void onStorageChanged() {
+        this.storageChanged = true;
+        this.sleeping = false;
+        if (!this.ticking) this.stopFastForward();
+        this.setChanged();
+    }
+
+    /**
+     * Called when a menu for this machine is opened on the server.
+     */
+    @ApiStatus.Internal
+    public void onMenuOpened() {
+        this.viewers++;
+        this.wake();
+    }
+
+    /**
+     * Called when a menu for this machine is closed on the server.
+     */
+    @ApiStatus.Internal
+    public void onMenuClosed() {
+        if (this.viewers > 0) this.viewers--;
+    }
+
+    /**
+     * Returns the number of menus currently open for this machine.
+     *
+     * @return the number of menus currently open for this machine.
+     */
+    public int getViewers() {
+        return this.viewers;
+    }
+
     /**
      * Called every tick, even if the machine is not active/powered.
      * Use this to tick fuel consumption or transfer resources, for example.
+     * <p>
+     * When the machine is updated at a reduced rate, this is called once per update rather than once per tick.
+     * Scale per-tick work by {@link #getUpdateTicks()}; the transfer and charging helpers of this class already do.
      *
      * @param level    the world.
      * @param pos      the position of this machine.
@@ -484,6 +1381,27 @@ protected void tickDisabled(@NotNull ServerLevel level, @NotNull BlockPos pos, @
      */
     protected abstract @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler);
 
+    /**
+     * Called on the server when the machine is active, simulating the given number of ticks at once.
+     * By default, this calls {@link #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller)} once per tick.
+     * Override this to advance the machine in constant time.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     * @param ticks    the number of ticks to simulate (at least 1).
+     * @return the status of this machine.
+     * @see #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller)
+     */
+    protected @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        MachineStatus status = this.tick(level, pos, state, profiler);
+        for (int i = 1; i < ticks; i++) {
+            status = this.tick(level, pos, state, profiler);
+        }
+        return status;
+    }
+
     /**
      * Returns whether the machine is currently active or not.
      * Not to be used while ticking.
@@ -504,7 +1422,8 @@ public boolean isActive() {
      * @see #getExposedEnergyStorage(Direction, Direction)
      */
     @ApiStatus.Internal
-    private @Nullable EnergyStorage getExposedEnergyStorage(@NotNull BlockState state, @Nullable Direction direction) {
+    @Nullable EnergyStorage getExposedEnergyStorage(@NotNull BlockState state, @Nullable Direction direction) {
+        this.hydrate();
         return this.getExposedEnergyStorage(state.getValue(BlockStateProperties.HORIZONTAL_FACING), direction);
     }
 
@@ -541,7 +1460,8 @@ public boolean isActive() {
      * @see #getExposedItemStorage(Direction, Direction)
      */
     @ApiStatus.Internal
-    private @Nullable ExposedStorage<Item, ItemVariant> getExposedItemStorage(@NotNull BlockState state, @Nullable Direction direction) {
+    @Nullable ExposedStorage<Item, ItemVariant> getExposedItemStorage(@NotNull BlockState state, @Nullable Direction direction) {
+        this.hydrate();
         return this.getExposedItemStorage(state.getValue(BlockStateProperties.HORIZONTAL_FACING), direction);
     }
 
@@ -581,7 +1501,8 @@ protected ExposedStorage<Item, ItemVariant> createExposedItemStorage(ResourceFlo
      * @see #getExposedFluidStorage(Direction, Direction)
      */
     @ApiStatus.Internal
-    private @Nullable ExposedStorage<Fluid, FluidVariant> getExposedFluidStorage(@NotNull BlockState state, @Nullable Direction direction) {
+    @Nullable ExposedStorage<Fluid, FluidVariant> getExposedFluidStorage(@NotNull BlockState state, @Nullable Direction direction) {
+        this.hydrate();
         return this.getExposedFluidStorage(state.getValue(BlockStateProperties.HORIZONTAL_FACING), direction);
     }
 
@@ -621,22 +1542,72 @@ protected ExposedStorage<Fluid, FluidVariant> createExposedFluidStorage(Resource
     @Override
     protected void saveAdditional(CompoundTag nbt) {
         super.saveAdditional(nbt);
+        if (this.dormantData != null) {
+            nbt.merge(this.dormantData);
+            nbt.remove(Constant.Nbt.SAVE_TIME);
+            return;
+        }
         nbt.put(Constant.Nbt.ENERGY_STORAGE, this.energyStorage.createTag());
         nbt.put(Constant.Nbt.ITEM_STORAGE, this.itemStorage.createTag());
         nbt.put(Constant.Nbt.FLUID_STORAGE, this.fluidStorage.createTag());
         nbt.put(Constant.Nbt.CONFIGURATION, this.configuration.createTag());
         nbt.put(Constant.Nbt.STATE, this.state.createTag());
         nbt.putBoolean(Constant.Nbt.DISABLE_DROPS, this.disableDrops);
+        if (this.disableDrops) {
+            nbt.putBoolean(Constant.Nbt.HYDRATED, true);
+        }
+        if (this.level != null && this.getMaxCatchUpTicks() > 0) {
+            nbt.putLong(Constant.Nbt.SAVE_TIME, this.level.getGameTime());
+        }
+    }
+
+    /**
+     * Saves the machine's state to an item, without the time it was saved at,
+     * as a machine placed from the item has not missed any ticks.
+     *
+     * @param stack the item to save to.
+     */
+    @Override
+    public void saveToItem(ItemStack stack) {
+        CompoundTag nbt = this.saveWithoutMetadata();
+        nbt.remove(Constant.Nbt.SAVE_TIME);
+        BlockItem.setBlockEntityData(stack, this.getType(), nbt);
     }
 
     /**
      * Deserializes the machine's state from nbt.
+     * <p>
+     * Machines placed by structures (with drops disabled) that were never interacted with become dormant on the server:
+     * their data is kept as-is until they are {@link #hydrate() hydrated}.
      *
      * @param nbt the nbt to deserialize from.
      */
     @Override
     public void load(CompoundTag nbt) {
         super.load(nbt);
+        this.dormantData = null;
+        if (MachineLib.CONFIG.dormantStructureMachines() && nbt.getBoolean(Constant.Nbt.DISABLE_DROPS) && !nbt.getBoolean(Constant.Nbt.HYDRATED)
+                && (this.level == null || !this.level.isClientSide())) {
+            this.disableDrops = true;
+            this.dormantData = nbt.copy();
+            if (this.level instanceof ServerLevel serverLevel) {
+                // placed by a structure after being added to the level
+                MachineTickManager manager = MachineTickManager.getIfPresent(serverLevel);
+                if (manager != null) manager.remove(this);
+            }
+            return;
+        }
+        this.loadData(nbt);
+    }
+
+    /**
+     * Deserializes the machine's data.
+     *
+     * @param nbt the nbt to deserialize from.
+     * @see #load(CompoundTag)
+     */
+    @ApiStatus.Internal
+    private void loadData(CompoundTag nbt) {
         if (nbt.contains(Constant.Nbt.CONFIGURATION, Tag.TAG_COMPOUND))
             this.configuration.readTag(nbt.getCompound(Constant.Nbt.CONFIGURATION));
         if (nbt.contains(Constant.Nbt.STATE, Tag.TAG_COMPOUND))
@@ -648,64 +1619,217 @@ public void load(CompoundTag nbt) {
         if (nbt.contains(Constant.Nbt.FLUID_STORAGE, Tag.TAG_LIST))
             this.fluidStorage.readTag(Objects.requireNonNull(nbt.getList(Constant.Nbt.FLUID_STORAGE, Tag.TAG_COMPOUND)));
         this.disableDrops = nbt.getBoolean(Constant.Nbt.DISABLE_DROPS);
+        // only chunk data carries the position of the machine - item and structure data must not be caught up on
+        this.saveTime = nbt.contains(Constant.Nbt.SAVE_TIME, Tag.TAG_LONG) && nbt.contains("x", Tag.TAG_INT)
+                && this.worldPosition.equals(new BlockPos(nbt.getInt("x"), nbt.getInt("y"), nbt.getInt("z")))
+                ? nbt.getLong(Constant.Nbt.SAVE_TIME) : -1;
 
         if (level != null && level.isClientSide()) {
             level.sendBlockUpdated(worldPosition, Blocks.AIR.defaultBlockState(), this.getBlockState(), Block.UPDATE_IMMEDIATE);
         }
     }
 
+    /**
+     * Returns whether this machine is dormant.
+     * Dormant machines were placed by a structure and have not been interacted with yet.
+     * They are not ticked and their saved data is not deserialized until they are {@link #hydrate() hydrated}.
+     *
+     * @return whether this machine is dormant.
+     */
+    public boolean isDormant() {
+        return this.dormantData != null;
+    }
+
+    /**
+     * Wakes a dormant machine: deserializes its saved data and registers it for ticking.
+     * Called when a player opens or breaks the machine, or when an adjacent block looks up its storages.
+     * Does nothing if the machine is not dormant.
+     */
+    public void hydrate() {
+        CompoundTag data = this.dormantData;
+        if (data == null) return;
+        this.dormantData = null;
+        this.loadData(data);
+        if (this.level instanceof ServerLevel serverLevel) {
+            this.state.setPowered(serverLevel.hasNeighborSignal(this.worldPosition));
+            if (!this.isRemoved()) {
+                MachineTickManager.get(serverLevel).add(this);
+            }
+        }
+        this.setChanged();
+    }
+
+    /**
+     * Dormant machines in client levels are hydrated right away, as nothing on the client depends on them staying dormant.
+     */
+    @Override
+    public void setLevel(Level level) {
+        super.setLevel(level);
+        if (level.isClientSide()) this.hydrate();
+    }
+
     /**
      * Pushes energy from this machine to adjacent capacitor blocks.
+     * When the machine simulates several ticks in one update, the transfer is repeated once per tick
+     * (until nothing more is moved), so that rate-limited receivers accept as much as they would at full rate.
      *
      * @param level the level.
      */
     protected void trySpreadEnergy(@NotNull ServerLevel level, @NotNull BlockState state) {
-        if (this.energyCache == null) {
-            this.energyCache = AdjacentBlockApiCache.create(EnergyStorage.SIDED, level, this.worldPosition);
-        }
         Direction facing = state.getValue(BlockStateProperties.HORIZONTAL_FACING);
+        long start = System.nanoTime();
+        ResourceTransferEvent event = new ResourceTransferEvent();
+        event.begin();
+        long moved = 0;
+        int faces = 0;
         for (Direction direction : Constant.Cache.DIRECTIONS) {
             EnergyStorage storage = this.getExposedEnergyStorage(facing, direction);
             if (storage != null && storage.supportsExtraction()) {
-                EnergyStorageUtil.move(storage, this.energyCache.find(direction), Long.MAX_VALUE, null);
+                EnergyStorage target = this.findAdjacentEnergyStorage(level, direction);
+                moved += StorageHelper.repeatTransfer(this.updateTicks, () -> EnergyStorageUtil.move(storage, target, Long.MAX_VALUE, null));
+                faces++;
             }
         }
+        this.finishTransfer(event, "energy", start, moved, faces);
+    }
+
+    /**
+     * Records the duration of a resource transfer, and records it to the flight recorder if it is enabled.
+     *
+     * @param event    the transfer event.
+     * @param resource the kind of resource transferred.
+     * @param start    the time the transfer started at, in nanoseconds.
+     * @param moved    the total amount of resources moved.
+     * @param faces    the number of faces that were able to output resources.
+     */
+    @ApiStatus.Internal
+    private void finishTransfer(@NotNull ResourceTransferEvent event, @NotNull String resource, long start, long moved, int faces) {
+        this.recordNestedPhase(MachineTimings.Phase.TRANSFER, System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.setMachine(this);
+            event.resource = resource;
+            event.amount = moved;
+            event.facesTried = faces;
+            event.commit();
+        }
+    }
+
+    /**
+     * Finds the energy storage exposed by the block adjacent to this machine.
+     *
+     * @param level     the level.
+     * @param direction the direction of the adjacent block.
+     * @return the energy storage exposed by the adjacent block, or {@code null} if there is none.
+     */
+    @ApiStatus.Internal
+    private @Nullable EnergyStorage findAdjacentEnergyStorage(@NotNull ServerLevel level, @NotNull Direction direction) {
+        if (this.deferring) {
+            MachineBlockEntity neighbor = this.getDeferredNeighbor(direction);
+            return neighbor == null ? null : neighbor.getExposedEnergyStorage(neighbor.getBlockState(), direction.getOpposite());
+        }
+        if (this.energyCache == null) {
+            this.energyCache = AdjacentBlockApiCache.create(EnergyStorage.SIDED, level, this.worldPosition);
+        }
+        return this.energyCache.find(direction);
     }
 
     /**
      * Pushes fluids from this machine to adjacent fluid storages.
+     * When the machine simulates several ticks in one update, the transfer is repeated once per tick
+     * (until nothing more is moved), so that rate-limited receivers accept as much as they would at full rate.
      *
      * @param level the level.
      */
     protected void trySpreadFluids(@NotNull ServerLevel level, @NotNull BlockState state) {
-        if (this.fluidCache == null) {
-            this.fluidCache = AdjacentBlockApiCache.create(FluidStorage.SIDED, level, this.worldPosition);
-        }
         Direction facing = state.getValue(BlockStateProperties.HORIZONTAL_FACING);
+        long start = System.nanoTime();
+        ResourceTransferEvent event = new ResourceTransferEvent();
+        event.begin();
+        long moved = 0;
+        int faces = 0;
         for (Direction direction : Constant.Cache.DIRECTIONS) {
             ExposedStorage<Fluid, FluidVariant> storage = this.getExposedFluidStorage(facing, direction);
             if (storage != null && storage.supportsExtraction()) {
-                StorageHelper.moveAll(storage, this.fluidCache.find(direction), Long.MAX_VALUE, null); //TODO: fluid I/O cap
+                Storage<FluidVariant> target = this.findAdjacentFluidStorage(level, direction);
+                moved += StorageHelper.repeatTransfer(this.updateTicks, () -> StorageHelper.transferAll(storage, target, Long.MAX_VALUE, null)); //TODO: fluid I/O cap
+                faces++;
             }
         }
+        this.finishTransfer(event, "fluid", start, moved, faces);
+    }
+
+    /**
+     * Finds the fluid storage exposed by the block adjacent to this machine.
+     *
+     * @param level     the level.
+     * @param direction the direction of the adjacent block.
+     * @return the fluid storage exposed by the adjacent block, or {@code null} if there is none.
+     */
+    @ApiStatus.Internal
+    private @Nullable Storage<FluidVariant> findAdjacentFluidStorage(@NotNull ServerLevel level, @NotNull Direction direction) {
+        if (this.deferring) {
+            MachineBlockEntity neighbor = this.getDeferredNeighbor(direction);
+            return neighbor == null ? null : neighbor.getExposedFluidStorage(neighbor.getBlockState(), direction.getOpposite());
+        }
+        if (this.fluidCache == null) {
+            this.fluidCache = AdjacentBlockApiCache.create(FluidStorage.SIDED, level, this.worldPosition);
+        }
+        return this.fluidCache.find(direction);
     }
 
     /**
      * Pushes items from this machine to adjacent item storages.
+     * When the machine simulates several ticks in one update, the transfer is repeated once per tick
+     * (until nothing more is moved), so that rate-limited receivers accept as much as they would at full rate.
      *
      * @param level the level.
      */
     protected void trySpreadItems(@NotNull ServerLevel level, @NotNull BlockState state) {
-        if (this.itemCache == null) {
-            this.itemCache = AdjacentBlockApiCache.create(ItemStorage.SIDED, level, this.worldPosition);
-        }
         Direction facing = state.getValue(BlockStateProperties.HORIZONTAL_FACING);
+        long start = System.nanoTime();
+        ResourceTransferEvent event = new ResourceTransferEvent();
+        event.begin();
+        long moved = 0;
+        int faces = 0;
         for (Direction direction : Constant.Cache.DIRECTIONS) {
             Storage<ItemVariant> storage = this.getExposedItemStorage(facing, direction);
             if (storage != null && storage.supportsExtraction()) {
-                StorageHelper.moveAll(storage, this.itemCache.find(direction), Long.MAX_VALUE, null);
+                Storage<ItemVariant> target = this.findAdjacentItemStorage(level, direction);
+                moved += StorageHelper.repeatTransfer(this.updateTicks, () -> StorageHelper.transferAll(storage, target, Long.MAX_VALUE, null));
+                faces++;
             }
         }
+        this.finishTransfer(event, "item", start, moved, faces);
+    }
+
+    /**
+     * Finds the item storage exposed by the block adjacent to this machine.
+     *
+     * @param level     the level.
+     * @param direction the direction of the adjacent block.
+     * @return the item storage exposed by the adjacent block, or {@code null} if there is none.
+     */
+    @ApiStatus.Internal
+    private @Nullable Storage<ItemVariant> findAdjacentItemStorage(@NotNull ServerLevel level, @NotNull Direction direction) {
+        if (this.deferring) {
+            MachineBlockEntity neighbor = this.getDeferredNeighbor(direction);
+            return neighbor == null ? null : neighbor.getExposedItemStorage(neighbor.getBlockState(), direction.getOpposite());
+        }
+        if (this.itemCache == null) {
+            this.itemCache = AdjacentBlockApiCache.create(ItemStorage.SIDED, level, this.worldPosition);
+        }
+        return this.itemCache.find(direction);
+    }
+
+    /**
+     * Returns the machine adjacent to this machine while {@link #deferring}.
+     *
+     * @param direction the direction of the adjacent machine.
+     * @return the adjacent machine, or {@code null} if there is none.
+     */
+    @ApiStatus.Internal
+    private @Nullable MachineBlockEntity getDeferredNeighbor(@NotNull Direction direction) {
+        return this.deferredNeighbors == null ? null : this.deferredNeighbors[direction.ordinal()];
     }
 
     /**
@@ -718,7 +1842,7 @@ protected void chargeFromStack(int slot) {
 
         EnergyStorage energyStorage = this.itemStorage.getSlot(slot).find(EnergyStorage.ITEM);
         if (energyStorage != null && energyStorage.supportsExtraction()) {
-            EnergyStorageUtil.move(energyStorage, this.energyStorage, this.getEnergyItemExtractionRate(), null);
+            EnergyStorageUtil.move(energyStorage, this.energyStorage, this.getEnergyItemExtractionRate() * this.updateTicks, null);
         }
     }
 
@@ -731,7 +1855,7 @@ protected void drainPowerToStack(int slot) {
         if (this.energyStorage().isEmpty()) return;
         EnergyStorage energyStorage = this.itemStorage.getSlot(slot).find(EnergyStorage.ITEM);
         if (energyStorage != null && energyStorage.supportsInsertion()) {
-            EnergyStorageUtil.move(this.energyStorage, energyStorage, this.getEnergyItemInsertionRate(), null);
+            EnergyStorageUtil.move(this.energyStorage, energyStorage, this.getEnergyItemInsertionRate() * this.updateTicks, null);
         }
     }
 
@@ -823,4 +1947,15 @@ public void awardUsedRecipes(@NotNull ServerPlayer player, @NotNull Set<Resource
             }
         }
     }
+
+    /**
+     * A task scheduled through {@link #schedulePeriodic(String, int, PeriodicTask)}.
+     *
+     * @param name     the name of the task.
+     * @param interval the number of ticks between runs of the task.
+     * @param task     the task to run.
+     */
+    @ApiStatus.Internal
+    private record ScheduledTask(@NotNull String name, int interval, @NotNull PeriodicTask task) {
+    }
 }
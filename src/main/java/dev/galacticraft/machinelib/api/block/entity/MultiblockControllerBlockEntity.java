@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.block.entity;
+
+import dev.galacticraft.machinelib.api.machine.MachineStatus;
+import dev.galacticraft.machinelib.api.machine.MachineStatuses;
+import dev.galacticraft.machinelib.api.machine.MachineType;
+import dev.galacticraft.machinelib.api.menu.MachineMenu;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * The controller of a multiblock machine.
+ * <p>
+ * The controller owns the storages of the whole structure and is the only block of it that is ticked.
+ * {@link MultiblockMemberBlockEntity Member blocks} expose the controller's storages (using the controller's
+ * I/O configuration for the side they are accessed from) and open the controller's menu.
+ * <p>
+ * The structure is scanned once, and then only the position of a changed block is re-validated when a member
+ * or the controller receives a neighbor update. Positions that are missing are re-checked every second
+ * while the structure is incomplete, to pick up blocks in chunks that were not loaded during the scan.
+ * Every member position must therefore be adjacent to another member or to the controller.
+ */
+public abstract class MultiblockControllerBlockEntity extends MachineBlockEntity {
+    /**
+     * How often (in ticks) the missing positions of an incomplete structure are re-checked.
+     */
+    private static final int RECHECK_INTERVAL = 20;
+
+    /**
+     * The unrotated offsets of the member positions, keyed by their absolute position.
+     */
+    @ApiStatus.Internal
+    private final Long2ObjectOpenHashMap<BlockPos> members = new Long2ObjectOpenHashMap<>();
+    /**
+     * The member positions that do not currently contain a valid member.
+     */
+    @ApiStatus.Internal
+    private final LongOpenHashSet missing = new LongOpenHashSet();
+    /**
+     * Whether the structure has been scanned since the controller was loaded.
+     */
+    @ApiStatus.Internal
+    private boolean scanned = false;
+    /**
+     * The rotation of the structure when it was scanned. The structure is scanned again if the controller is rotated.
+     */
+    @ApiStatus.Internal
+    private @Nullable Rotation scannedRotation = null;
+
+    /**
+     * Constructs a new multiblock controller with the text automatically derived from the passed {@link BlockState}.
+     *
+     * @param type  The type of block entity.
+     * @param pos   The position of the machine in the level.
+     * @param state The block state of the machine.
+     */
+    protected MultiblockControllerBlockEntity(@NotNull MachineType<? extends MachineBlockEntity, ? extends MachineMenu<? extends MachineBlockEntity>> type, @NotNull BlockPos pos, BlockState state) {
+        super(type, pos, state);
+        this.schedulePeriodic("structure", RECHECK_INTERVAL, this::recheckMissing);
+    }
+
+    /**
+     * Constructs a new multiblock controller.
+     *
+     * @param type  The type of block entity.
+     * @param pos   The position of the machine in the level.
+     * @param state The block state of the machine.
+     * @param name  The text of the machine, to be passed to the screen handler.
+     */
+    protected MultiblockControllerBlockEntity(@NotNull MachineType<? extends MachineBlockEntity, ? extends MachineMenu<? extends MachineBlockEntity>> type, @NotNull BlockPos pos, BlockState state, @NotNull Component name) {
+        super(type, pos, state, name);
+        this.schedulePeriodic("structure", RECHECK_INTERVAL, this::recheckMissing);
+    }
+
+    /**
+     * Returns the positions of the members of the structure, relative to a controller facing north.
+     * The offsets are rotated to match the facing of the controller.
+     *
+     * @return the offsets of the member positions.
+     */
+    protected abstract @NotNull List<BlockPos> getMemberOffsets();
+
+    /**
+     * Returns whether a block is a valid member of the structure at the given position.
+     *
+     * @param offset the unrotated offset of the position, as returned by {@link #getMemberOffsets()}.
+     * @param state  the block at the position.
+     * @return whether the block is a valid member.
+     */
+    protected abstract boolean isValidMember(@NotNull BlockPos offset, @NotNull BlockState state);
+
+    /**
+     * Called every tick while the structure is complete and the machine is enabled.
+     *
+     * @param level    the world.
+     * @param pos      the position of the controller.
+     * @param state    the block state of the controller.
+     * @param profiler the world profiler.
+     * @return the status of the machine.
+     * @see #tick(ServerLevel, BlockPos, BlockState, ProfilerFiller)
+     */
+    protected abstract @NotNull MachineStatus tickFormed(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler);
+
+    @Override
+    protected final @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler) {
+        if (!this.scanned || this.scannedRotation != rotation(state.getValue(BlockStateProperties.HORIZONTAL_FACING))) {
+            this.scan(level, state);
+        }
+        if (!this.isFormed()) return MachineStatuses.INCOMPLETE_STRUCTURE;
+        return this.tickFormed(level, pos, state, profiler);
+    }
+
+    /**
+     * Wakes the controller when it is rotated, so that the structure is scanned again at its new rotation.
+     *
+     * @param state the new block state of the controller.
+     */
+    @Override
+    public void setBlockState(BlockState state) {
+        boolean rotated = this.scanned && this.scannedRotation != rotation(state.getValue(BlockStateProperties.HORIZONTAL_FACING));
+        super.setBlockState(state);
+        if (rotated) this.wake();
+    }
+
+    /**
+     * Returns whether every member of the structure is present.
+     *
+     * @return whether the structure is complete.
+     */
+    public boolean isFormed() {
+        return this.scanned && this.missing.isEmpty();
+    }
+
+    /**
+     * Controllers never sleep while their structure is incomplete, even if {@link #canSleep()} allows it,
+     * as the missing positions are re-checked by a periodic task that does not run while sleeping.
+     *
+     * @return whether this machine may fall asleep.
+     */
+    @Override
+    @ApiStatus.Internal
+    boolean mayFallAsleep() {
+        return this.isFormed() && super.mayFallAsleep();
+    }
+
+    /**
+     * Returns whether the given position is part of this structure.
+     *
+     * @param pos the position to check.
+     * @return whether the position is a member position of this structure.
+     */
+    public boolean isMember(@NotNull BlockPos pos) {
+        return this.members.containsKey(pos.asLong());
+    }
+
+    /**
+     * Re-validates a single position after the block there changed.
+     * Called by the neighbor updates of members and of the controller.
+     *
+     * @param pos the position of the changed block.
+     */
+    @ApiStatus.Internal
+    public void onStructureChanged(@NotNull BlockPos pos) {
+        if (!this.scanned || !(this.level instanceof ServerLevel serverLevel)) return;
+        boolean formed = this.isFormed();
+        BlockState state = this.getBlockState();
+        if (this.scannedRotation != rotation(state.getValue(BlockStateProperties.HORIZONTAL_FACING))) {
+            // the controller was rotated - every member position moved
+            this.scan(serverLevel, state);
+            this.wake();
+            return;
+        }
+        BlockPos offset = this.members.get(pos.asLong());
+        if (offset == null) return;
+
+        this.checkMember(serverLevel, pos, offset);
+        if (formed != this.isFormed()) {
+            this.wake();
+        }
+    }
+
+    /**
+     * Scans every member position of the structure.
+     *
+     * @param level the world.
+     * @param state the block state of the controller.
+     */
+    @ApiStatus.Internal
+    private void scan(@NotNull ServerLevel level, @NotNull BlockState state) {
+        this.members.clear();
+        this.missing.clear();
+        Rotation rotation = rotation(state.getValue(BlockStateProperties.HORIZONTAL_FACING));
+        this.scannedRotation = rotation;
+        for (BlockPos offset : this.getMemberOffsets()) {
+            BlockPos pos = this.worldPosition.offset(offset.rotate(rotation));
+            this.members.put(pos.asLong(), offset);
+            this.checkMember(level, pos, offset);
+        }
+        this.scanned = true;
+    }
+
+    /**
+     * Re-checks the missing positions of an incomplete structure.
+     *
+     * @param level the world.
+     * @param pos   the position of the controller.
+     * @param state the block state of the controller.
+     * @param runs  the number of times the check was due.
+     */
+    @ApiStatus.Internal
+    private void recheckMissing(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, int runs) {
+        if (!this.scanned || this.scannedRotation != rotation(state.getValue(BlockStateProperties.HORIZONTAL_FACING))) {
+            this.scan(level, state);
+            return;
+        }
+        if (this.missing.isEmpty()) return;
+        for (long missing : this.missing.toLongArray()) {
+            this.checkMember(level, BlockPos.of(missing), this.members.get(missing));
+        }
+    }
+
+    /**
+     * Validates a single member position and links the member to this controller.
+     * A member that is already used by another formed controller is not valid, as it can only proxy one controller.
+     *
+     * @param level  the world.
+     * @param pos    the absolute position of the member.
+     * @param offset the unrotated offset of the member.
+     */
+    @ApiStatus.Internal
+    private void checkMember(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockPos offset) {
+        if (level.isLoaded(pos) && this.isValidMember(offset, level.getBlockState(pos))) {
+            if (level.getBlockEntity(pos) instanceof MultiblockMemberBlockEntity member) {
+                MultiblockControllerBlockEntity controller = member.getController();
+                if (controller != null && controller != this && controller.isFormed()) {
+                    this.missing.add(pos.asLong());
+                    return;
+                }
+                member.setController(this.worldPosition);
+            }
+            this.missing.remove(pos.asLong());
+        } else {
+            this.missing.add(pos.asLong());
+        }
+    }
+
+    /**
+     * Returns the rotation from a controller facing north to a controller with the given facing.
+     *
+     * @param facing the facing of the controller.
+     * @return the rotation of the structure.
+     */
+    private static @NotNull Rotation rotation(@NotNull Direction facing) {
+        return switch (facing) {
+            case EAST -> Rotation.CLOCKWISE_90;
+            case SOUTH -> Rotation.CLOCKWISE_180;
+            case WEST -> Rotation.COUNTERCLOCKWISE_90;
+            default -> Rotation.NONE;
+        };
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.block.entity;
+
+import dev.galacticraft.machinelib.impl.Constant;
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidStorage;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemStorage;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import team.reborn.energy.api.EnergyStorage;
+
+import java.util.Objects;
+
+/**
+ * A block of a multiblock machine that is not the controller.
+ * Members do not tick and have no storages of their own: they expose the storages of their
+ * {@link MultiblockControllerBlockEntity controller} and open its menu.
+ *
+ * @see dev.galacticraft.machinelib.api.block.MultiblockMemberBlock
+ */
+public class MultiblockMemberBlockEntity extends BlockEntity {
+    /**
+     * The position of the controller that claimed this member, or {@code null} if it has not been claimed.
+     */
+    @ApiStatus.Internal
+    private @Nullable BlockPos controllerPos = null;
+
+    public MultiblockMemberBlockEntity(@NotNull BlockEntityType<?> type, @NotNull BlockPos pos, @NotNull BlockState state) {
+        super(type, pos, state);
+    }
+
+    /**
+     * Registers the transfer handlers for multiblock members.
+     * <p>
+     * This needs to be called for every member block.
+     * Otherwise, in-world resource transfer will not work.
+     *
+     * @param blocks the blocks to register.
+     * @see MachineBlockEntity#registerComponents(Block...)
+     */
+    public static void registerComponents(@NotNull Block... blocks) {
+        EnergyStorage.SIDED.registerForBlocks((world, pos, state, blockEntity, context) -> {
+            if (blockEntity instanceof MultiblockMemberBlockEntity member) {
+                MultiblockControllerBlockEntity controller = member.getFormedController();
+                if (controller != null) return controller.getExposedEnergyStorage(controller.getBlockState(), context);
+            }
+            return null;
+        }, blocks);
+        ItemStorage.SIDED.registerForBlocks((world, pos, state, blockEntity, context) -> {
+            if (blockEntity instanceof MultiblockMemberBlockEntity member) {
+                MultiblockControllerBlockEntity controller = member.getFormedController();
+                if (controller != null) return controller.getExposedItemStorage(controller.getBlockState(), context);
+            }
+            return null;
+        }, blocks);
+        FluidStorage.SIDED.registerForBlocks((world, pos, state, blockEntity, context) -> {
+            if (blockEntity instanceof MultiblockMemberBlockEntity member) {
+                MultiblockControllerBlockEntity controller = member.getFormedController();
+                if (controller != null) return controller.getExposedFluidStorage(controller.getBlockState(), context);
+            }
+            return null;
+        }, blocks);
+    }
+
+    /**
+     * Returns the controller of this member.
+     *
+     * @return the controller that claimed this member, or {@code null} if it has not been claimed or the controller is gone.
+     */
+    public @Nullable MultiblockControllerBlockEntity getController() {
+        if (this.controllerPos == null || this.level == null || !this.level.isLoaded(this.controllerPos)) return null;
+        if (this.level.getBlockEntity(this.controllerPos) instanceof MultiblockControllerBlockEntity controller
+                && controller.isMember(this.worldPosition)) {
+            return controller;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the controller of this member, if its structure is complete.
+     *
+     * @return the controller of this member, or {@code null} if there is none or its structure is incomplete.
+     */
+    public @Nullable MultiblockControllerBlockEntity getFormedController() {
+        MultiblockControllerBlockEntity controller = this.getController();
+        return controller != null && controller.isFormed() ? controller : null;
+    }
+
+    /**
+     * Links this member to a controller.
+     *
+     * @param pos the position of the controller.
+     */
+    @ApiStatus.Internal
+    void setController(@Nullable BlockPos pos) {
+        if (!Objects.equals(this.controllerPos, pos)) {
+            this.controllerPos = pos == null ? null : pos.immutable();
+            this.setChanged();
+        }
+    }
+
+    @Override
+    protected void saveAdditional(CompoundTag nbt) {
+        super.saveAdditional(nbt);
+        if (this.controllerPos != null) {
+            nbt.put(Constant.Nbt.CONTROLLER, NbtUtils.writeBlockPos(this.controllerPos));
+        }
+    }
+
+    @Override
+    public void load(CompoundTag nbt) {
+        super.load(nbt);
+        this.controllerPos = nbt.contains(Constant.Nbt.CONTROLLER, Tag.TAG_COMPOUND) ? NbtUtils.readBlockPos(nbt.getCompound(Constant.Nbt.CONTROLLER)) : null;
+    }
+}
@@ -20,34 +20,28 @@
  * SOFTWARE.
  */
 
-package dev.galacticraft.machinelib.impl.block.entity;
+package dev.galacticraft.machinelib.api.block.entity;
 
-import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
 import net.minecraft.world.level.block.state.BlockState;
-import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Default implementation of a {@link BlockEntityTicker} for {@link MachineBlockEntity}s for convenience.
+ * Work that a machine performs every few ticks instead of every tick (e.g. pushing resources to its neighbors).
+ *
+ * @see MachineBlockEntity#schedulePeriodic(String, int, PeriodicTask)
  */
-public final class MachineBlockEntityTicker<T extends BlockEntity> implements BlockEntityTicker<T> {
-    private static final MachineBlockEntityTicker<? extends MachineBlockEntity> INSTANCE = new MachineBlockEntityTicker<>();
-
-    private MachineBlockEntityTicker() {
-    }
-
-    @Contract(pure = true)
-    public static <T extends BlockEntity> @NotNull MachineBlockEntityTicker<T> getInstance() {
-        return (MachineBlockEntityTicker<T>) INSTANCE;
-    }
-
-    @Override
-    public void tick(@NotNull Level level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull T machine) {
-        ((MachineBlockEntity) machine).tickBase(((ServerLevel) level), pos, state, level.getProfiler());
-    }
+@FunctionalInterface
+public interface PeriodicTask {
+    /**
+     * Runs the task.
+     *
+     * @param level the world.
+     * @param pos   the position of the machine.
+     * @param state the block state of the machine.
+     * @param runs  the number of times the task was due since the last update of the machine.
+     *              This is {@code 1} unless the machine is being ticked at a reduced rate.
+     */
+    void run(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, int runs);
 }
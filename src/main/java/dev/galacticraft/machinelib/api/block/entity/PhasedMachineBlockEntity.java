@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.api.block.entity;
+
+import dev.galacticraft.machinelib.api.machine.MachineStatus;
+import dev.galacticraft.machinelib.api.machine.MachineType;
+import dev.galacticraft.machinelib.api.menu.MachineMenu;
+import dev.galacticraft.machinelib.api.metrics.MachineTimings;
+import dev.galacticraft.machinelib.impl.jfr.MachineTickEvent;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A machine that splits its update into three phases:
+ * <ol>
+ *     <li>{@link #gather(ServerLevel, BlockPos, BlockState, ProfilerFiller) gather}: reads inputs and adjacent storages (server thread),</li>
+ *     <li>{@link #compute(int) compute}: works on the machine's own state only (may run concurrently with other machines),</li>
+ *     <li>{@link #commit(ServerLevel, BlockPos, BlockState, ProfilerFiller) commit}: applies transfers to adjacent storages (server thread).</li>
+ * </ol>
+ * The tick manager runs each phase for all machines of a type before moving on to the next one,
+ * so the result of an update does not depend on the order in which machines are ticked.
+ * When a machine is ticked on its own, the three phases simply run one after another.
+ */
+public abstract class PhasedMachineBlockEntity extends MachineBlockEntity {
+    /**
+     * The flight recorder event of the current phased update.
+     */
+    @ApiStatus.Internal
+    private @Nullable MachineTickEvent phaseEvent = null;
+    /**
+     * The status reported by the {@link #compute(int) compute} phase of the current update,
+     * or {@code null} if the machine is disabled.
+     */
+    @ApiStatus.Internal
+    private @Nullable MachineStatus phaseStatus = null;
+    /**
+     * The number of ticks simulated by the current phased update.
+     */
+    @ApiStatus.Internal
+    private int phaseTicks = 0;
+    /**
+     * The time spent in the phases of the current update, in nanoseconds.
+     */
+    @ApiStatus.Internal
+    private long phaseNanos = 0;
+
+    /**
+     * Constructs a new phased machine block entity with the text automatically derived from the passed {@link BlockState}.
+     *
+     * @param type  The type of block entity.
+     * @param pos   The position of the machine in the level.
+     * @param state The block state of the machine.
+     */
+    protected PhasedMachineBlockEntity(@NotNull MachineType<? extends MachineBlockEntity, ? extends MachineMenu<? extends MachineBlockEntity>> type, @NotNull BlockPos pos, BlockState state) {
+        super(type, pos, state);
+    }
+
+    /**
+     * Constructs a new phased machine block entity.
+     *
+     * @param type  The type of block entity.
+     * @param pos   The position of the machine in the level.
+     * @param state The block state of the machine.
+     * @param name  The text of the machine, to be passed to the screen handler.
+     */
+    protected PhasedMachineBlockEntity(@NotNull MachineType<? extends MachineBlockEntity, ? extends MachineMenu<? extends MachineBlockEntity>> type, @NotNull BlockPos pos, BlockState state, @NotNull Component name) {
+        super(type, pos, state, name);
+    }
+
+    /**
+     * Reads everything the machine needs for this update (e.g. pulls resources from adjacent storages).
+     * Always called on the server thread.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     */
+    protected abstract void gather(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler);
+
+    /**
+     * Advances the machine by the given number of ticks.
+     * May be called off the server thread, concurrently with other machines:
+     * implementations must only access the machine's own state (no level or neighbor access).
+     *
+     * @param ticks the number of ticks to simulate.
+     * @return the status of this machine.
+     */
+    protected abstract @NotNull MachineStatus compute(int ticks);
+
+    /**
+     * Applies the external effects of this update (e.g. pushes resources into adjacent storages).
+     * Always called on the server thread.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     */
+    protected abstract void commit(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler);
+
+    @Override
+    protected final @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler) {
+        return this.tick(level, pos, state, profiler, 1);
+    }
+
+    @Override
+    protected final @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        profiler.push("gather");
+        this.gather(level, pos, state, profiler);
+        profiler.popPush("compute");
+        MachineStatus status = this.compute(ticks);
+        profiler.popPush("commit");
+        this.commit(level, pos, state, profiler);
+        profiler.pop();
+        return status;
+    }
+
+    /**
+     * Starts a phased update and runs the gather phase. Must be called on the server thread.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     * @param ticks    the number of ticks that have passed since the last update.
+     * @return whether the machine is enabled and {@link #computePhase()} should be called.
+     */
+    @ApiStatus.Internal
+    public final boolean beginPhases(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        this.phaseEvent = new MachineTickEvent();
+        this.phaseEvent.begin();
+        this.phaseTicks = ticks;
+        this.phaseStatus = null;
+        this.phaseNanos = 0;
+        if (!this.beginTick(level, pos, state, profiler, ticks)) return false;
+
+        profiler.push("gather");
+        long start = System.nanoTime();
+        this.gather(level, pos, state, profiler);
+        this.phaseNanos += System.nanoTime() - start;
+        profiler.pop();
+        return true;
+    }
+
+    /**
+     * Runs the compute phase of the current update. May be called off the server thread.
+     */
+    @ApiStatus.Internal
+    public final void computePhase() {
+        long start = System.nanoTime();
+        this.phaseStatus = this.compute(this.phaseTicks);
+        this.phaseNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Runs the commit phase and finishes the current update. Must be called on the server thread.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     */
+    @ApiStatus.Internal
+    public final void finishPhases(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler) {
+        MachineTickEvent event = this.phaseEvent;
+        assert event != null;
+        this.phaseEvent = null;
+        if (this.phaseStatus != null) {
+            profiler.push("commit");
+            long start = System.nanoTime();
+            this.commit(level, pos, state, profiler);
+            this.phaseNanos += System.nanoTime() - start;
+            profiler.pop();
+            this.recordPhase(MachineTimings.Phase.TICK, this.phaseNanos);
+            this.updateStatus(level, pos, state, this.phaseStatus, this.phaseTicks);
+            this.phaseStatus = null;
+        }
+        this.endTick(event, this.phaseTicks);
+    }
+}
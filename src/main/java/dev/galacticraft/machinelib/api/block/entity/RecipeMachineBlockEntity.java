@@ -22,12 +22,28 @@
 
 package dev.galacticraft.machinelib.api.block.entity;
 
+import dev.galacticraft.machinelib.api.compat.vanilla.CraftingRecipeTestContainer;
+import dev.galacticraft.machinelib.api.compat.vanilla.RecipeTestContainer;
+import dev.galacticraft.machinelib.api.config.Config;
+import dev.galacticraft.machinelib.api.event.MachineEvent;
+import dev.galacticraft.machinelib.api.event.MachineEventBus;
+import dev.galacticraft.machinelib.api.event.MachineEventType;
 import dev.galacticraft.machinelib.api.machine.MachineStatus;
 import dev.galacticraft.machinelib.api.machine.MachineStatuses;
 import dev.galacticraft.machinelib.api.machine.MachineType;
 import dev.galacticraft.machinelib.api.menu.RecipeMachineMenu;
+import dev.galacticraft.machinelib.api.metrics.MachineTimings;
+import dev.galacticraft.machinelib.api.transfer.InputType;
 import dev.galacticraft.machinelib.impl.Constant;
+import dev.galacticraft.machinelib.impl.MachineLib;
+import dev.galacticraft.machinelib.impl.jfr.RecipeLookupEvent;
+import dev.galacticraft.machinelib.impl.recipe.InputFingerprint;
+import dev.galacticraft.machinelib.impl.recipe.NegativeRecipeCache;
+import dev.galacticraft.machinelib.impl.recipe.RecipeIndex;
+import dev.galacticraft.machinelib.impl.recipe.SharedRecipeCache;
+import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerLevel;
@@ -44,6 +60,10 @@
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
 /**
  * A machine block entity that processes recipes.
  *
@@ -51,17 +71,52 @@
  * @param <R> The type of recipe the machine uses.
  */
 public abstract class RecipeMachineBlockEntity<C extends Container, R extends Recipe<C>> extends MachineBlockEntity {
+    /**
+     * Whether a machine class overrides {@link #findValidRecipe(Level)}, which cannot be called off the server thread.
+     */
+    @ApiStatus.Internal
+    private static final ClassValue<Boolean> OVERRIDES_LEGACY_LOOKUP = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(@NotNull Class<?> type) {
+            for (Class<?> c = type; c != RecipeMachineBlockEntity.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("findValidRecipe", Level.class);
+                    return true;
+                } catch (NoSuchMethodException ignored) {
+                }
+            }
+            return false;
+        }
+    };
+
     /**
      * The type of recipe that this machine processes.
      */
     private final @NotNull RecipeType<R> recipeType;
 
     /**
-     * The number of times the machine's inventory has been modified.
+     * The number of times the machine's recipe inputs have been modified.
      * Used to determine if the machine's active recipe must be recalculated.
+     *
+     * @see #getRecipeInputModifications()
      */
     @ApiStatus.Internal
     private long inventoryModCount = -1;
+
+    /**
+     * The number of times the machine's recipe outputs have been modified.
+     * Used to determine if the output space for the found recipe must be checked again.
+     *
+     * @see #getRecipeOutputModifications()
+     */
+    @ApiStatus.Internal
+    private long outputModCount = -1;
+
+    /**
+     * The recipe found by the last recipe search, even if it could not be started as its output did not fit.
+     */
+    @ApiStatus.Internal
+    private @Nullable RecipeHolder<R> foundRecipe = null;
     @ApiStatus.Internal
     private MachineStatus cachedRecipeState = null;
 
@@ -77,6 +132,15 @@
     @ApiStatus.Internal
     private @Nullable RecipeHolder<R> cachedRecipe = null;
 
+    /**
+     * The recipe search running off the server thread, or {@code null} if there is none.
+     * Its result is only applied if the inventory was not modified since the search started.
+     *
+     * @see Config#asyncRecipeResolution()
+     */
+    @ApiStatus.Internal
+    private @Nullable CompletableFuture<RecipeHolder<R>> pendingRecipe = null;
+
     /**
      * The progress of the machine's current recipe.
      */
@@ -151,6 +215,26 @@ protected RecipeMachineBlockEntity(@NotNull MachineType<? extends RecipeMachineB
      */
     protected abstract void extractResourcesToWork();
 
+    /**
+     * Extracts the necessary resources to run this machine for up to the given number of ticks.
+     * Resources for the first tick are guaranteed to be available (see {@link #hasResourcesToWork()}).
+     * <p>
+     * By default, this calls {@link #extractResourcesToWork()} once per tick while resources are available.
+     * Override this to extract resources in constant time (e.g. {@code ticks * usage} energy at once).
+     *
+     * @param ticks the maximum number of ticks to extract resources for.
+     * @return the number of ticks resources were extracted for, between {@code 1} and {@code ticks}.
+     * @see #extractResourcesToWork()
+     */
+    protected int extractResourcesToWork(int ticks) {
+        this.extractResourcesToWork();
+        for (int i = 1; i < ticks; i++) {
+            if (this.hasResourcesToWork() != null) return i;
+            this.extractResourcesToWork();
+        }
+        return ticks;
+    }
+
     @Override
     public @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler) {
         profiler.push("resources");
@@ -165,10 +249,9 @@ protected RecipeMachineBlockEntity(@NotNull MachineType<? extends RecipeMachineB
                 assert recipe != null;
                 profiler.push("working");
                 this.extractResourcesToWork();
+                if (this.progress == 0) this.onRecipeStarted(recipe);
                 if (++this.progress >= this.getProcessingTime(recipe)) {
-                    profiler.push("crafting");
-                    this.craft(profiler, recipe);
-                    profiler.pop();
+                    this.finishRecipe(profiler, recipe);
                 }
                 profiler.pop();
                 return this.workingStatus(recipe);
@@ -178,6 +261,90 @@ protected RecipeMachineBlockEntity(@NotNull MachineType<? extends RecipeMachineB
         return status;
     }
 
+    /**
+     * Posts a {@link MachineEventType#RECIPE_STARTED} event if anything is listening for it.
+     *
+     * @param recipe the recipe that the machine started working on.
+     */
+    @ApiStatus.Internal
+    private void onRecipeStarted(@NotNull RecipeHolder<R> recipe) {
+        if (this.hasListeners(MachineEventType.RECIPE_STARTED)) {
+            this.postEvent(MachineEventType.RECIPE_STARTED, new MachineEvent.RecipeStarted(this, recipe));
+        }
+    }
+
+    /**
+     * Crafts the finished recipe, records how long crafting took and posts a {@link MachineEventType#RECIPE_COMPLETED} event.
+     *
+     * @param profiler the world profiler.
+     * @param recipe   the recipe that finished processing.
+     */
+    @ApiStatus.Internal
+    private void finishRecipe(@NotNull ProfilerFiller profiler, @NotNull RecipeHolder<R> recipe) {
+        profiler.push("crafting");
+        long start = System.nanoTime();
+        this.craft(profiler, recipe);
+        this.getMachineType().getTimings().record(MachineTimings.Phase.CRAFTING, System.nanoTime() - start);
+        profiler.pop();
+        if (this.hasListeners(MachineEventType.RECIPE_COMPLETED)) {
+            this.postEvent(MachineEventType.RECIPE_COMPLETED, new MachineEvent.RecipeCompleted(this, recipe));
+        }
+    }
+
+    /**
+     * Advances the machine by multiple ticks at once.
+     * Progress and resource usage are advanced in bulk up to the next craft,
+     * so that the throughput is the same as ticking the machine once per tick.
+     * Recipes are always searched for synchronously during such an update, as the remaining ticks
+     * would otherwise be lost while waiting for the search to complete.
+     *
+     * @param level    the world.
+     * @param pos      the position of this machine.
+     * @param state    the block state of this machine.
+     * @param profiler the world profiler.
+     * @param ticks    the number of ticks to simulate.
+     * @return the status of the machine.
+     */
+    @Override
+    protected @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        if (ticks == 1) return this.tick(level, pos, state, profiler);
+
+        MachineStatus status = null;
+        int remaining = ticks;
+        while (remaining > 0) {
+            profiler.push("resources");
+            MachineStatus resourceFailure = this.hasResourcesToWork();
+            profiler.pop();
+            if (resourceFailure != null) return resourceFailure;
+
+            profiler.push("recipe");
+            MachineStatus recipeFailure = this.testInventoryRecipe(level, profiler);
+            profiler.pop();
+            if (recipeFailure != null) return recipeFailure;
+
+            RecipeHolder<R> recipe = this.getActiveRecipe();
+            assert recipe != null;
+            profiler.push("working");
+            int processingTime = this.getProcessingTime(recipe);
+            int worked = this.extractResourcesToWork(Math.min(remaining, Math.max(1, processingTime - this.progress)));
+            if (worked <= 0) {
+                // nothing was extracted - stop before starting or advancing the recipe
+                profiler.pop();
+                MachineStatus failure = this.hasResourcesToWork();
+                return failure != null ? failure : MachineStatuses.IDLE;
+            }
+            if (this.progress == 0) this.onRecipeStarted(recipe);
+            this.progress += worked;
+            remaining -= worked;
+            if (this.progress >= processingTime) {
+                this.finishRecipe(profiler, recipe);
+            }
+            profiler.pop();
+            status = this.workingStatus(recipe);
+        }
+        return status;
+    }
+
     /**
      * Updates the currently active recipe if the inventory has changed.
      *
@@ -187,26 +354,144 @@ protected RecipeMachineBlockEntity(@NotNull MachineType<? extends RecipeMachineB
      */
     @Nullable
     protected MachineStatus testInventoryRecipe(@NotNull ServerLevel world, @NotNull ProfilerFiller profiler) {
-        if (this.inventoryModCount != this.itemStorage().getModifications()) { // includes output slots
-            this.inventoryModCount = this.itemStorage().getModifications();
+        long modifications = this.getRecipeInputModifications();
+        long outputModifications = this.getRecipeOutputModifications();
+        if (this.pendingRecipe != null) {
+            if (this.inventoryModCount != modifications) {
+                // the result would be outdated - search again
+                this.pendingRecipe.cancel(false);
+                this.pendingRecipe = null;
+            } else if (this.pendingRecipe.isDone()) {
+                RecipeHolder<R> recipe;
+                try {
+                    recipe = this.pendingRecipe.join();
+                } catch (CompletionException e) {
+                    MachineLib.LOGGER.error("Failed to find recipe for machine at {}", this.getBlockPos(), e.getCause());
+                    recipe = null;
+                }
+                this.pendingRecipe = null;
+                this.outputModCount = outputModifications;
+                this.updateActiveRecipe(recipe);
+            } else if (this.getUpdateTicks() > 1) {
+                // a bulk update cannot wait for the search without losing its remaining ticks - search again synchronously
+                this.pendingRecipe.cancel(false);
+                this.pendingRecipe = null;
+                this.inventoryModCount = -1;
+            } else {
+                return MachineStatuses.SEARCHING;
+            }
+        }
+
+        if (this.inventoryModCount != modifications) {
+            this.inventoryModCount = modifications;
+            this.outputModCount = outputModifications;
+            C snapshot = MachineLib.CONFIG.asyncRecipeResolution() && this.getUpdateTicks() == 1 && !OVERRIDES_LEGACY_LOOKUP.get(this.getClass()) ? this.snapshotCraftingInv() : null;
+            if (snapshot != null) {
+                RecipeHolder<R> cached = this.cachedRecipe;
+                this.pendingRecipe = CompletableFuture.supplyAsync(() -> this.lookupRecipe(() -> this.findValidRecipe(world, snapshot, cached)), Util.backgroundExecutor());
+                return MachineStatuses.SEARCHING;
+            }
+
             profiler.push("find_recipe");
-            RecipeHolder<R> recipe = this.findValidRecipe(world);
+            RecipeHolder<R> recipe = this.lookupRecipe(() -> this.findValidRecipe(world));
             profiler.pop();
-            if (recipe != null) {
-                if (this.canOutputStacks(recipe)) {
-                    this.setActiveRecipe(recipe);
-                    this.cachedRecipeState = null;
-                } else {
-                    this.setActiveRecipe(null);
-                    this.cachedRecipeState = MachineStatuses.OUTPUT_FULL;
-                }
+            this.updateActiveRecipe(recipe);
+        } else if (this.outputModCount != outputModifications || this.activeRecipe == null && this.cachedRecipeState == null) {
+            // only the outputs changed (or a craft finished without touching the inputs)
+            // - the recipe is the same, but it may fit now (or no longer fit)
+            this.outputModCount = outputModifications;
+            if (this.foundRecipe != null) {
+                this.updateActiveRecipe(this.foundRecipe);
+            }
+        }
+
+        return this.cachedRecipeState;
+    }
+
+    /**
+     * Returns the number of times the slots that may hold recipe inputs have been modified.
+     * The active recipe is only searched for again when this changes.
+     * By default, this covers the {@link InputType#INPUT input} and {@link InputType#STORAGE storage} slots of the machine.
+     *
+     * @return the number of times the recipe inputs have been modified.
+     */
+    protected long getRecipeInputModifications() {
+        return this.itemStorage().getModifications(InputType.INPUT) + this.itemStorage().getModifications(InputType.STORAGE);
+    }
+
+    /**
+     * Returns the number of times the slots that recipe outputs are inserted into have been modified.
+     * When only this changes, the found recipe is kept and only {@link #canOutputStacks(RecipeHolder)} is checked again.
+     * By default, this covers the {@link InputType#OUTPUT output} and {@link InputType#RECIPE_OUTPUT recipe output} slots of the machine.
+     *
+     * @return the number of times the recipe outputs have been modified.
+     */
+    protected long getRecipeOutputModifications() {
+        return this.itemStorage().getModifications(InputType.OUTPUT) + this.itemStorage().getModifications(InputType.RECIPE_OUTPUT);
+    }
+
+    /**
+     * Runs a recipe lookup, recording its duration.
+     * May be called off the server thread.
+     *
+     * @param lookup the recipe lookup.
+     * @return the recipe found by the lookup.
+     */
+    @ApiStatus.Internal
+    private @Nullable RecipeHolder<R> lookupRecipe(@NotNull Supplier<RecipeHolder<R>> lookup) {
+        RecipeLookupEvent event = new RecipeLookupEvent();
+        event.begin();
+        long start = System.nanoTime();
+        RecipeHolder<R> recipe = lookup.get();
+        this.getMachineType().getTimings().record(MachineTimings.Phase.FIND_RECIPE, System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.setMachine(this);
+            event.recipeType = String.valueOf(BuiltInRegistries.RECIPE_TYPE.getKey(this.getRecipeType()));
+            event.hit = recipe != null;
+            event.recipe = recipe != null ? recipe.id().toString() : null;
+            event.commit();
+        }
+        return recipe;
+    }
+
+    /**
+     * Sets the active recipe to the result of a recipe search.
+     *
+     * @param recipe the recipe that was found, or {@code null} if there is none.
+     */
+    @ApiStatus.Internal
+    private void updateActiveRecipe(@Nullable RecipeHolder<R> recipe) {
+        this.foundRecipe = recipe;
+        if (recipe != null) {
+            if (this.canOutputStacks(recipe)) {
+                this.setActiveRecipe(recipe);
+                this.cachedRecipeState = null;
             } else {
                 this.setActiveRecipe(null);
-                this.cachedRecipeState = MachineStatuses.INVALID_RECIPE;
+                this.cachedRecipeState = MachineStatuses.OUTPUT_FULL;
             }
+        } else {
+            this.setActiveRecipe(null);
+            this.cachedRecipeState = MachineStatuses.INVALID_RECIPE;
         }
+    }
 
-        return this.cachedRecipeState;
+    /**
+     * Creates an immutable copy of the {@link #craftingInv() crafting inventory}, used to search for recipes off the server thread.
+     * <p>
+     * By default, this supports {@link RecipeTestContainer}s (and {@link CraftingRecipeTestContainer}s).
+     * Returns {@code null} if the inventory cannot be copied, in which case recipes are always searched for synchronously.
+     *
+     * @return a copy of the crafting inventory, or {@code null} if it cannot be copied.
+     * @see Config#asyncRecipeResolution()
+     */
+    @SuppressWarnings("unchecked")
+    protected @Nullable C snapshotCraftingInv() {
+        if (this.craftingInv() instanceof RecipeTestContainer container) {
+            RecipeTestContainer snapshot = container.snapshot();
+            if (snapshot.getClass() == container.getClass()) return (C) snapshot;
+        }
+        return null;
     }
 
     /**
@@ -237,15 +522,100 @@ protected void craft(@NotNull ProfilerFiller profiler, @NotNull RecipeHolder<R>
     /**
      * Finds the first valid recipe in the machine's inventory.
      * Will always test for the current recipe first.
+     * <p>
+     * Delegates to {@link #findValidRecipe(Level, Container, RecipeHolder)}, which is the overload to override,
+     * as it is used by both synchronous and asynchronous searches.
+     * Machines that still override this overload are always searched for synchronously, so the override is honoured.
      *
      * @param world The world.
      * @return The first valid recipe in the machine's inventory.
      */
     protected @Nullable RecipeHolder<R> findValidRecipe(@NotNull Level world) {
-        if (this.cachedRecipe != null && this.cachedRecipe.value().matches(this.craftingInv(), world)) {
-            return this.cachedRecipe;
+        return this.findValidRecipe(world, this.craftingInv(), this.cachedRecipe);
+    }
+
+    /**
+     * Finds the first valid recipe in the given inventory.
+     * Used by every recipe search, so machines customizing the search should override this overload.
+     * When searching asynchronously, this is called off the server thread with a
+     * {@link #snapshotCraftingInv() snapshot} of the crafting inventory, so it must not access the machine's state.
+     * The recipe caches and indices it uses, as well as the machine timings, are safe to use from any thread.
+     *
+     * @param world     The world.
+     * @param inventory The inventory to match recipes against.
+     * @param cached    The last recipe processed by the machine, tested first.
+     * @return The first valid recipe in the inventory.
+     * @see Config#indexedRecipeLookup()
+     * @see Config#negativeRecipeCacheSize()
+     * @see Config#sharedRecipeCacheSize()
+     */
+    protected @Nullable RecipeHolder<R> findValidRecipe(@NotNull Level world, @NotNull C inventory, @Nullable RecipeHolder<R> cached) {
+        if (cached != null && cached.value().matches(inventory, world)) {
+            return cached;
+        }
+
+        NegativeRecipeCache negativeCache = null;
+        InputFingerprint fingerprint = null;
+        boolean shared = false;
+        if (this.canCacheRecipes()) {
+            negativeCache = NegativeRecipeCache.get(world);
+            shared = SharedRecipeCache.isEnabled();
+            if (negativeCache != null || shared) {
+                fingerprint = InputFingerprint.of(this.getRecipeType(), inventory);
+            }
+            if (negativeCache != null && negativeCache.contains(fingerprint)) return null;
+            if (shared) {
+                RecipeHolder<R> hit = SharedRecipeCache.get(fingerprint, inventory, world);
+                if (hit != null) return hit;
+            }
+        }
+
+        RecipeHolder<R> recipe;
+        if (MachineLib.CONFIG.indexedRecipeLookup()) {
+            recipe = RecipeIndex.getRecipeFor(world.getRecipeManager(), this.getRecipeType(), inventory, world);
+        } else {
+            recipe = world.getRecipeManager().getRecipeFor(this.getRecipeType(), inventory, world).orElse(null);
+        }
+
+        if (recipe == null) {
+            if (negativeCache != null) negativeCache.add(fingerprint);
+        } else if (shared) {
+            SharedRecipeCache.put(fingerprint, recipe);
+        }
+        return recipe;
+    }
+
+    /**
+     * Returns whether recipe lookups of this machine may be cached by the items in its crafting inventory.
+     * Machines whose recipes match on anything else (such as fluids, energy or the state of the level)
+     * must return {@code false}, as a cached lookup would ignore changes to that state.
+     *
+     * @return whether recipe lookups may be cached by their item inputs.
+     * @see Config#negativeRecipeCacheSize()
+     * @see Config#sharedRecipeCacheSize()
+     */
+    protected boolean canCacheRecipes() {
+        return true;
+    }
+
+    /**
+     * Machines never sleep while a recipe search is pending, as nothing would wake them once the search completes.
+     *
+     * @return whether this machine may fall asleep.
+     */
+    @Override
+    @ApiStatus.Internal
+    boolean mayFallAsleep() {
+        return this.pendingRecipe == null && super.mayFallAsleep();
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if (this.pendingRecipe != null) {
+            this.pendingRecipe.cancel(false);
+            this.pendingRecipe = null;
         }
-        return world.getRecipeManager().getRecipeFor(this.getRecipeType(), this.craftingInv(), world).orElse(null);
     }
 
     @Override
@@ -98,6 +98,12 @@ private CraftingRecipeTestContainer(int width, int height, ItemResourceSlot[] sl
         this.height = height;
     }
 
+    @Override
+    @Contract(value = " -> new", pure = true)
+    public @NotNull CraftingRecipeTestContainer snapshot() {
+        return new CraftingRecipeTestContainer(this.width, this.height, copySlots(this.slots));
+    }
+
     @Override
     public int getWidth() {
         return this.width;
@@ -23,8 +23,10 @@
 package dev.galacticraft.machinelib.api.compat.vanilla;
 
 import com.google.common.collect.Iterators;
+import dev.galacticraft.machinelib.api.filter.ResourceFilters;
 import dev.galacticraft.machinelib.api.storage.SlottedStorageAccess;
 import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.transfer.InputType;
 import dev.galacticraft.machinelib.api.util.ItemStackUtil;
 import net.minecraft.world.Container;
 import net.minecraft.world.entity.player.Player;
@@ -86,6 +88,33 @@ public class RecipeTestContainer implements Container {
         this.slots = slots;
     }
 
+    /**
+     * Creates a copy of this container that is detached from the machine's slots.
+     * The copy will not reflect later changes to the slots, so it can safely be used off the server thread.
+     *
+     * @return a snapshot of this container
+     */
+    @Contract(value = " -> new", pure = true)
+    public @NotNull RecipeTestContainer snapshot() {
+        return new RecipeTestContainer(copySlots(this.slots));
+    }
+
+    /**
+     * Copies the contents of the given slots into new, detached slots.
+     *
+     * @param slots the slots to copy
+     * @return the copied slots
+     */
+    protected static ItemResourceSlot @NotNull [] copySlots(ItemResourceSlot @NotNull [] slots) {
+        ItemResourceSlot[] copy = new ItemResourceSlot[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            ItemResourceSlot slot = slots[i];
+            copy[i] = ItemResourceSlot.create(InputType.STORAGE, null, ResourceFilters.any(), (int) slot.getCapacity());
+            copy[i].set(slot.getResource(), slot.copyTag(), slot.getAmount());
+        }
+        return copy;
+    }
+
     @Override
     public int getContainerSize() {
         return this.slots.length;
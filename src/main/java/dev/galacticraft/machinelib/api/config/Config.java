@@ -42,6 +42,48 @@ static Config loadFrom(File file) {
     FluidDisplayMode fluidDisplayMode();
     void setFluidDisplayMode(FluidDisplayMode value);
 
+    boolean parallelMachineTicking();
+    void setParallelMachineTicking(boolean enabled);
+
+    int machineLodRadius();
+    void setMachineLodRadius(int radius);
+
+    int machineLodInterval();
+    void setMachineLodInterval(int interval);
+
+    long machineTickBudget();
+    void setMachineTickBudget(long nanos);
+
+    int activeStateCooldown();
+    void setActiveStateCooldown(int ticks);
+
+    boolean asyncRecipeResolution();
+    void setAsyncRecipeResolution(boolean enabled);
+
+    long machineWatchdogThreshold();
+    void setMachineWatchdogThreshold(long nanos);
+
+    int machineWatchdogInterval();
+    void setMachineWatchdogInterval(int interval);
+
+    boolean steadyStateFastForward();
+    void setSteadyStateFastForward(boolean enabled);
+
+    int steadyStateMaxStride();
+    void setSteadyStateMaxStride(int stride);
+
+    boolean dormantStructureMachines();
+    void setDormantStructureMachines(boolean enabled);
+
+    boolean indexedRecipeLookup();
+    void setIndexedRecipeLookup(boolean enabled);
+
+    int negativeRecipeCacheSize();
+    void setNegativeRecipeCacheSize(int size);
+
+    int sharedRecipeCacheSize();
+    void setSharedRecipeCacheSize(int size);
+
     void copyFrom(Config config);
 
     @ApiStatus.Internal
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.event;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.block.entity.RecipeMachineBlockEntity;
+import dev.galacticraft.machinelib.api.machine.MachineStatus;
+import dev.galacticraft.machinelib.api.transfer.ResourceType;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An event posted by a machine to the {@link MachineEventBus}.
+ * Events are only created if a listener is registered for their {@link MachineEventType type}.
+ */
+public sealed interface MachineEvent {
+    /**
+     * Returns the machine that posted this event.
+     *
+     * @return the machine that posted this event.
+     */
+    @NotNull MachineBlockEntity machine();
+
+    /**
+     * The status of a machine changed.
+     *
+     * @param machine  the machine.
+     * @param previous the previous status of the machine.
+     * @param status   the new status of the machine.
+     * @see MachineEventType#STATUS_CHANGED
+     */
+    record StatusChanged(@NotNull MachineBlockEntity machine, @Nullable MachineStatus previous, @NotNull MachineStatus status) implements MachineEvent {
+    }
+
+    /**
+     * The active state of a machine's block changed.
+     *
+     * @param machine the machine.
+     * @param active  whether the machine is now active.
+     * @see MachineEventType#ACTIVE_CHANGED
+     */
+    record ActiveChanged(@NotNull MachineBlockEntity machine, boolean active) implements MachineEvent {
+    }
+
+    /**
+     * A machine started working on a recipe.
+     *
+     * @param machine the machine.
+     * @param recipe  the recipe.
+     * @see MachineEventType#RECIPE_STARTED
+     */
+    record RecipeStarted(@NotNull RecipeMachineBlockEntity<?, ?> machine, @NotNull RecipeHolder<?> recipe) implements MachineEvent {
+    }
+
+    /**
+     * A machine crafted a recipe.
+     *
+     * @param machine the machine.
+     * @param recipe  the recipe.
+     * @see MachineEventType#RECIPE_COMPLETED
+     */
+    record RecipeCompleted(@NotNull RecipeMachineBlockEntity<?, ?> machine, @NotNull RecipeHolder<?> recipe) implements MachineEvent {
+    }
+
+    /**
+     * One of a machine's storages became empty.
+     *
+     * @param machine the machine.
+     * @param type    the type of the storage ({@link ResourceType#ENERGY}, {@link ResourceType#ITEM} or {@link ResourceType#FLUID}).
+     * @see MachineEventType#STORAGE_EMPTIED
+     */
+    record StorageEmptied(@NotNull MachineBlockEntity machine, @NotNull ResourceType type) implements MachineEvent {
+    }
+
+    /**
+     * One of a machine's storages became full.
+     *
+     * @param machine the machine.
+     * @param type    the type of the storage ({@link ResourceType#ENERGY}, {@link ResourceType#ITEM} or {@link ResourceType#FLUID}).
+     * @see MachineEventType#STORAGE_FILLED
+     */
+    record StorageFilled(@NotNull MachineBlockEntity machine, @NotNull ResourceType type) implements MachineEvent {
+    }
+
+    /**
+     * A machine stopped working because it ran out of energy.
+     *
+     * @param machine the machine.
+     * @param status  the status reported by the machine.
+     * @see MachineEventType#ENERGY_DEPLETED
+     */
+    record EnergyDepleted(@NotNull MachineBlockEntity machine, @NotNull MachineStatus status) implements MachineEvent {
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.event;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.machine.MachineType;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dispatches {@link MachineEvent machine events} to listeners registered for a single machine,
+ * for every machine of a {@link MachineType}, or for every machine in a level.
+ * <p>
+ * Machines check {@link #hasListeners(MachineBlockEntity, MachineEventType)} before creating an event,
+ * so events that no listener would receive cost nothing to dispatch.
+ * Listeners registered for a single machine are dropped when the machine is removed or unloaded.
+ */
+public final class MachineEventBus {
+    private static final Map<MachineType<?, ?>, MachineListeners> TYPES = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, MachineListeners> LEVELS = new ConcurrentHashMap<>();
+
+    private MachineEventBus() {
+    }
+
+    /**
+     * Registers a listener for the events of a single machine.
+     *
+     * @param machine  the machine.
+     * @param type     the type of event to listen to.
+     * @param listener the listener.
+     * @param <E>      the type of event.
+     */
+    public static <E extends MachineEvent> void register(@NotNull MachineBlockEntity machine, @NotNull MachineEventType<E> type, @NotNull MachineEventListener<? super E> listener) {
+        machine.getListeners(true).add(type, listener);
+        type.addListener();
+    }
+
+    /**
+     * Registers a listener for the events of every machine of a type.
+     *
+     * @param machineType the type of machine.
+     * @param type        the type of event to listen to.
+     * @param listener    the listener.
+     * @param <E>         the type of event.
+     */
+    public static <E extends MachineEvent> void register(@NotNull MachineType<?, ?> machineType, @NotNull MachineEventType<E> type, @NotNull MachineEventListener<? super E> listener) {
+        TYPES.computeIfAbsent(machineType, k -> new MachineListeners()).add(type, listener);
+        type.addListener();
+    }
+
+    /**
+     * Registers a listener for the events of every machine in a level.
+     *
+     * @param level    the level.
+     * @param type     the type of event to listen to.
+     * @param listener the listener.
+     * @param <E>      the type of event.
+     */
+    public static <E extends MachineEvent> void register(@NotNull ResourceKey<Level> level, @NotNull MachineEventType<E> type, @NotNull MachineEventListener<? super E> listener) {
+        LEVELS.computeIfAbsent(level, k -> new MachineListeners()).add(type, listener);
+        type.addListener();
+    }
+
+    public static <E extends MachineEvent> void unregister(@NotNull MachineBlockEntity machine, @NotNull MachineEventType<E> type, @NotNull MachineEventListener<? super E> listener) {
+        MachineListeners listeners = machine.getListeners(false);
+        if (listeners != null && listeners.remove(type, listener)) type.removeListener();
+    }
+
+    public static <E extends MachineEvent> void unregister(@NotNull MachineType<?, ?> machineType, @NotNull MachineEventType<E> type, @NotNull MachineEventListener<? super E> listener) {
+        MachineListeners listeners = TYPES.get(machineType);
+        if (listeners != null && listeners.remove(type, listener)) type.removeListener();
+    }
+
+    public static <E extends MachineEvent> void unregister(@NotNull ResourceKey<Level> level, @NotNull MachineEventType<E> type, @NotNull MachineEventListener<? super E> listener) {
+        MachineListeners listeners = LEVELS.get(level);
+        if (listeners != null && listeners.remove(type, listener)) type.removeListener();
+    }
+
+    /**
+     * Drops every listener registered for a single machine.
+     *
+     * @param listeners the listeners of the machine.
+     */
+    @ApiStatus.Internal
+    public static void clear(@NotNull MachineListeners listeners) {
+        int[] removed = listeners.clear();
+        for (int id = 0; id < removed.length; id++) {
+            for (int i = 0; i < removed[id]; i++) {
+                MachineEventType.byId(id).removeListener();
+            }
+        }
+    }
+
+    /**
+     * Returns whether an event of the given type posted by a machine would reach any listener,
+     * registered for the machine itself, for its type or for its level.
+     *
+     * @param machine the machine posting the event.
+     * @param type    the type of event.
+     * @return whether any listener would receive the event.
+     */
+    @ApiStatus.Internal
+    public static boolean hasListeners(@NotNull MachineBlockEntity machine, @NotNull MachineEventType<?> type) {
+        if (!type.hasListeners()) return false;
+        MachineListeners listeners = machine.getListeners(false);
+        if (listeners != null && listeners.has(type)) return true;
+        listeners = TYPES.get(machine.getMachineType());
+        if (listeners != null && listeners.has(type)) return true;
+        Level level = machine.getLevel();
+        if (level == null) return false;
+        listeners = LEVELS.get(level.dimension());
+        return listeners != null && listeners.has(type);
+    }
+
+    /**
+     * Posts an event to the listeners of its machine, of the machine's type and of the machine's level.
+     * Callers should check {@link #hasListeners(MachineBlockEntity, MachineEventType)} before creating the event.
+     *
+     * @param type  the type of event.
+     * @param event the event.
+     * @param <E>   the type of event.
+     */
+    @ApiStatus.Internal
+    public static <E extends MachineEvent> void post(@NotNull MachineEventType<E> type, @NotNull E event) {
+        MachineBlockEntity machine = event.machine();
+        MachineListeners listeners = machine.getListeners(false);
+        if (listeners != null) listeners.post(type, event);
+        listeners = TYPES.get(machine.getMachineType());
+        if (listeners != null) listeners.post(type, event);
+        Level level = machine.getLevel();
+        if (level != null) {
+            listeners = LEVELS.get(level.dimension());
+            if (listeners != null) listeners.post(type, event);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.event;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A type of {@link MachineEvent}.
+ * <p>
+ * Each type counts its registered listeners, so machines can skip creating and posting events
+ * that nobody listens to with a single check of {@link #hasListeners()},
+ * before checking the scopes the event would be posted to (see {@link MachineEventBus#hasListeners}).
+ *
+ * @param <E> the type of event.
+ */
+public final class MachineEventType<E extends MachineEvent> {
+    public static final MachineEventType<MachineEvent.StatusChanged> STATUS_CHANGED = new MachineEventType<>("status_changed", 0);
+    public static final MachineEventType<MachineEvent.ActiveChanged> ACTIVE_CHANGED = new MachineEventType<>("active_changed", 1);
+    public static final MachineEventType<MachineEvent.RecipeStarted> RECIPE_STARTED = new MachineEventType<>("recipe_started", 2);
+    public static final MachineEventType<MachineEvent.RecipeCompleted> RECIPE_COMPLETED = new MachineEventType<>("recipe_completed", 3);
+    public static final MachineEventType<MachineEvent.StorageEmptied> STORAGE_EMPTIED = new MachineEventType<>("storage_emptied", 4);
+    public static final MachineEventType<MachineEvent.StorageFilled> STORAGE_FILLED = new MachineEventType<>("storage_filled", 5);
+    public static final MachineEventType<MachineEvent.EnergyDepleted> ENERGY_DEPLETED = new MachineEventType<>("energy_depleted", 6);
+
+    /**
+     * All event types, indexed by their id.
+     */
+    private static final MachineEventType<?>[] VALUES = {
+            STATUS_CHANGED, ACTIVE_CHANGED, RECIPE_STARTED, RECIPE_COMPLETED, STORAGE_EMPTIED, STORAGE_FILLED, ENERGY_DEPLETED
+    };
+
+    private final String name;
+    private final int id;
+    private final AtomicInteger listeners = new AtomicInteger();
+
+    private MachineEventType(@NotNull String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns whether any listener is registered for this type of event, in any scope.
+     *
+     * @return whether any listener is registered for this type of event.
+     */
+    public boolean hasListeners() {
+        return this.listeners.get() > 0;
+    }
+
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    @ApiStatus.Internal
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the number of event types.
+     *
+     * @return the number of event types.
+     */
+    @ApiStatus.Internal
+    public static int count() {
+        return VALUES.length;
+    }
+
+    @ApiStatus.Internal
+    static @NotNull MachineEventType<?> byId(int id) {
+        return VALUES[id];
+    }
+
+    @ApiStatus.Internal
+    void addListener() {
+        this.listeners.incrementAndGet();
+    }
+
+    @ApiStatus.Internal
+    void removeListener() {
+        this.listeners.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.api.event;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The listeners registered in a single scope (a machine, a machine type or a level), grouped by event type.
+ * Listeners are registered and events are posted on the server thread.
+ */
+@ApiStatus.Internal
+public final class MachineListeners {
+    @SuppressWarnings("unchecked")
+    private final List<MachineEventListener<?>>[] listeners = new List[MachineEventType.count()];
+
+    synchronized void add(@NotNull MachineEventType<?> type, @NotNull MachineEventListener<?> listener) {
+        List<MachineEventListener<?>> list = this.listeners[type.getId()];
+        if (list == null) {
+            list = new CopyOnWriteArrayList<>();
+            this.listeners[type.getId()] = list;
+        }
+        list.add(listener);
+    }
+
+    synchronized boolean remove(@NotNull MachineEventType<?> type, @NotNull MachineEventListener<?> listener) {
+        List<MachineEventListener<?>> list = this.listeners[type.getId()];
+        return list != null && list.remove(listener);
+    }
+
+    /**
+     * Removes every listener.
+     *
+     * @return the number of listeners removed, indexed by event type id.
+     */
+    synchronized int @NotNull [] clear() {
+        int[] removed = new int[this.listeners.length];
+        for (int i = 0; i < this.listeners.length; i++) {
+            if (this.listeners[i] != null) {
+                removed[i] = this.listeners[i].size();
+                this.listeners[i] = null;
+            }
+        }
+        return removed;
+    }
+
+    boolean has(@NotNull MachineEventType<?> type) {
+        List<MachineEventListener<?>> list = this.listeners[type.getId()];
+        return list != null && !list.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    <E extends MachineEvent> void post(@NotNull MachineEventType<E> type, @NotNull E event) {
+        List<MachineEventListener<?>> list = this.listeners[type.getId()];
+        if (list == null) return;
+        for (MachineEventListener<?> listener : list) {
+            ((MachineEventListener<E>) listener).onEvent(event);
+        }
+    }
+}
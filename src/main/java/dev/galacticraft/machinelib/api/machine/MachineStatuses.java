@@ -54,6 +54,14 @@ public final class MachineStatuses {
      * The machine is running.
      */
     public static final MachineStatus ACTIVE = MachineStatus.create(Constant.TranslationKey.STATUS_ACTIVE, ChatFormatting.GREEN, MachineStatus.Type.WORKING);
+    /**
+     * The machine is waiting for a recipe search to complete.
+     */
+    public static final MachineStatus SEARCHING = MachineStatus.create(Constant.TranslationKey.STATUS_SEARCHING, ChatFormatting.GRAY, MachineStatus.Type.OTHER);
+    /**
+     * The structure of the multiblock machine is not complete.
+     */
+    public static final MachineStatus INCOMPLETE_STRUCTURE = MachineStatus.create(Constant.TranslationKey.STATUS_INCOMPLETE_STRUCTURE, ChatFormatting.RED, MachineStatus.Type.OTHER);
 
     /**
      * This class should not be instantiated.
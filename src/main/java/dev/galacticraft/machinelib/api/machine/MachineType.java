@@ -24,6 +24,7 @@
 
 import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
 import dev.galacticraft.machinelib.api.menu.MachineMenu;
+import dev.galacticraft.machinelib.api.metrics.MachineTimings;
 import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
 import dev.galacticraft.machinelib.api.storage.MachineFluidStorage;
 import dev.galacticraft.machinelib.api.storage.MachineItemStorage;
@@ -65,4 +66,11 @@
     @NotNull MenuType<Menu> getMenuType();
 
     @NotNull BlockEntityType<Machine> getBlockEntityType();
+
+    /**
+     * Returns the tick timings shared by all machines of this type.
+     *
+     * @return the tick timings of this machine type.
+     */
+    @NotNull MachineTimings getTimings();
 }
@@ -194,11 +194,15 @@ public MachineMenu(int syncId, @NotNull ServerPlayer player, @NotNull Machine ma
 
         this.addPlayerInventorySlots(player.getInventory(), 0, 0); // it's the server
         this.registerSyncHandlers(this::addSyncHandler);
+        machine.onMenuOpened();
     }
 
     @Override
     public void removed(Player player) {
         super.removed(player);
+        if (this.server) {
+            this.machine.onMenuClosed();
+        }
     }
 
     /**
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.api.metrics;
+
+import dev.galacticraft.machinelib.api.machine.MachineType;
+import dev.galacticraft.machinelib.impl.metrics.MachineTimingsImpl;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Always-on timings of the different phases of a machine's tick, shared by all machines of a {@link MachineType}.
+ * Also counts how often machines switch the active state of their block.
+ *
+ * @see MachineType#getTimings()
+ */
+public interface MachineTimings {
+    /**
+     * Creates a new, empty set of timings.
+     *
+     * @return a new set of timings.
+     */
+    @Contract(value = " -> new", pure = true)
+    static @NotNull MachineTimings create() {
+        return new MachineTimingsImpl();
+    }
+
+    /**
+     * Returns the histogram of the given phase.
+     *
+     * @param phase the phase.
+     * @return the histogram of the given phase.
+     */
+    @NotNull TickHistogram get(@NotNull Phase phase);
+
+    /**
+     * Records the duration of a phase.
+     *
+     * @param phase the phase.
+     * @param nanos the duration of the phase, in nanoseconds.
+     */
+    default void record(@NotNull Phase phase, long nanos) {
+        this.get(phase).record(nanos);
+    }
+
+    /**
+     * Records that a machine switched the active state of its block.
+     */
+    void recordActiveStateChange();
+
+    /**
+     * Records that a machine became active again before its active state cooldown ran out,
+     * avoiding two block state changes.
+     */
+    void recordSuppressedActiveStateChange();
+
+    /**
+     * Returns the number of times machines of this type switched the active state of their block.
+     *
+     * @return the number of active state changes.
+     */
+    long activeStateChanges();
+
+    /**
+     * Returns the number of times machines of this type became active again during their active state cooldown.
+     * Each of these avoided two block state changes.
+     *
+     * @return the number of suppressed active state changes.
+     */
+    long suppressedActiveStateChanges();
+
+    /**
+     * Resets the histograms of all phases and the active state counters.
+     */
+    void reset();
+
+    /**
+     * The timed phases of a machine tick.
+     */
+    enum Phase {
+        /**
+         * {@code MachineBlockEntity#tickConstant}
+         */
+        CONSTANT("constant"),
+        /**
+         * {@code MachineBlockEntity#tick}
+         */
+        TICK("tick"),
+        /**
+         * {@code MachineBlockEntity#tickDisabled}
+         */
+        DISABLED("disabled"),
+        /**
+         * Recipe lookups of {@code RecipeMachineBlockEntity}.
+         */
+        FIND_RECIPE("find_recipe"),
+        /**
+         * Crafting of recipes in {@code RecipeMachineBlockEntity}.
+         */
+        CRAFTING("crafting"),
+        /**
+         * Resources pushed to adjacent storages by {@code MachineBlockEntity#trySpreadEnergy} and its siblings.
+         * Usually runs inside {@link #CONSTANT}.
+         */
+        TRANSFER("transfer");
+
+        private final String id;
+
+        Phase(String id) {
+            this.id = id;
+        }
+
+        public @NotNull String getId() {
+            return this.id;
+        }
+    }
+}
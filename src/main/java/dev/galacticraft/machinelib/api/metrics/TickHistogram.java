@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.api.metrics;
+
+import dev.galacticraft.machinelib.impl.metrics.TickHistogramImpl;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A thread-safe, fixed-size histogram of durations (in nanoseconds).
+ * Values are recorded into logarithmic buckets with linear sub-buckets, so the relative error of reported
+ * percentiles is bounded (about 12.5%) regardless of the magnitude of the recorded values.
+ */
+public interface TickHistogram {
+    /**
+     * Creates a new, empty histogram.
+     *
+     * @return a new histogram.
+     */
+    @Contract(value = " -> new", pure = true)
+    static @NotNull TickHistogram create() {
+        return new TickHistogramImpl();
+    }
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos the duration to record, in nanoseconds.
+     */
+    void record(long nanos);
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values.
+     */
+    long count();
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return the sum of all recorded values, in nanoseconds.
+     */
+    long total();
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest recorded value, in nanoseconds.
+     */
+    long max();
+
+    /**
+     * Returns an upper bound of the value at the given percentile.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 1}.
+     * @return the value at the given percentile, in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    long percentile(double percentile);
+
+    /**
+     * Returns the median of the recorded values.
+     *
+     * @return the median of the recorded values, in nanoseconds.
+     */
+    default long p50() {
+        return this.percentile(0.5);
+    }
+
+    /**
+     * Returns the 99th percentile of the recorded values.
+     *
+     * @return the 99th percentile of the recorded values, in nanoseconds.
+     */
+    default long p99() {
+        return this.percentile(0.99);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    void reset();
+}
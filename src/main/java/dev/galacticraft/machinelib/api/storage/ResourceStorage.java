@@ -27,6 +27,7 @@
 import dev.galacticraft.machinelib.api.misc.Deserializable;
 import dev.galacticraft.machinelib.api.misc.MutableModifiable;
 import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import dev.galacticraft.machinelib.api.transfer.InputType;
 import net.minecraft.nbt.ListTag;
 import org.jetbrains.annotations.NotNull;
 
@@ -38,4 +39,14 @@
     @NotNull Slot getSlot(int slot);
 
     @NotNull ResourceFilter<Resource> getStrictFilter(int slot);
+
+    /**
+     * Returns the number of times the slots of the given input type have been modified.
+     * Unlike {@link #getModifications()}, this does not change when slots of other types are modified
+     * (for example, when items are extracted from an output slot).
+     *
+     * @param type the input type of the slots.
+     * @return the number of times the slots of the given type have been modified.
+     */
+    long getModifications(@NotNull InputType type);
 }
@@ -34,6 +34,8 @@
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.LongSupplier;
+
 /**
  * Utility methods for dealing with {@link Storage storages}.
  */
@@ -218,5 +220,60 @@ public static <Resource, Variant extends TransferVariant<Resource>, S extends St
         return changed;
     }
 
+    /**
+     * Moves as many resources as possible from one storage to another.
+     * Like {@link #moveAll(Storage, Storage, long, TransactionContext)}, but returns the total amount moved.
+     *
+     * @param from      the storage to extract resources from.
+     * @param to        the storage to insert resources into.
+     * @param maxAmount the maximum amount of each resource to move.
+     * @param context   the transaction context.
+     * @return the total amount of resources moved.
+     */
+    public static <Resource, Variant extends TransferVariant<Resource>, S extends Storage<Variant>> long transferAll(@Nullable S from, @Nullable S to, long maxAmount, @Nullable TransactionContext context) {
+        if (from == null || to == null || maxAmount == 0 || !from.supportsExtraction() || !to.supportsInsertion()) return 0;
+        StoragePreconditions.notNegative(maxAmount);
+        long moved = 0;
+
+        for (StorageView<Variant> view : from) {
+            Variant variant;
+            long maxExtracted;
+            try (Transaction test = Transaction.openNested(context)) {
+                variant = view.getResource();
+                maxExtracted = from.extract(variant, maxAmount, test);
+            }
+
+            if (maxExtracted == 0 || variant.isBlank()) continue;
+
+            try (Transaction moveTransaction = Transaction.openNested(context)) {
+                long accepted = to.insert(variant, maxExtracted, moveTransaction);
+
+                if (view.extract(variant, accepted, moveTransaction) == accepted) {
+                    moveTransaction.commit();
+                    moved += accepted;
+                }
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Repeats a transfer up to the given number of times, stopping as soon as a transfer moves nothing.
+     * Used to keep the throughput of transfers into rate-limited storages when a machine simulates several ticks in one update.
+     *
+     * @param times    the maximum number of transfers (usually the number of ticks simulated).
+     * @param transfer the transfer, returning the amount moved.
+     * @return the total amount moved.
+     */
+    public static long repeatTransfer(int times, @NotNull LongSupplier transfer) {
+        long moved = 0;
+        for (int i = 0; i < times; i++) {
+            long amount = transfer.getAsLong();
+            if (amount == 0) break;
+            moved += amount;
+        }
+        return moved;
+    }
+
     public record StorageContents(long amount, long capacity) {}
 }
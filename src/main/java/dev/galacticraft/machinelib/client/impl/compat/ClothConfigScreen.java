@@ -52,6 +52,101 @@ public static Screen factory(Screen screen) {
                 .build()
         );
 
+        ConfigCategory performance = builder.getOrCreateCategory(Component.translatable("ui.machinelib.config.category.performance"));
+        performance.addEntry(entryBuilder.startBooleanToggle(Component.translatable("ui.machinelib.config.parallel_machine_ticking"), MachineLib.CONFIG.parallelMachineTicking())
+                .setSaveConsumer(MachineLib.CONFIG::setParallelMachineTicking)
+                .setDefaultValue(Config.DEFAULT.parallelMachineTicking())
+                .build()
+        );
+        performance.addEntry(entryBuilder.startIntField(Component.translatable("ui.machinelib.config.machine_lod_radius"), MachineLib.CONFIG.machineLodRadius())
+                .setSaveConsumer(MachineLib.CONFIG::setMachineLodRadius)
+                .setDefaultValue(Config.DEFAULT.machineLodRadius())
+                .setMin(0)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startIntField(Component.translatable("ui.machinelib.config.machine_lod_interval"), MachineLib.CONFIG.machineLodInterval())
+                .setSaveConsumer(MachineLib.CONFIG::setMachineLodInterval)
+                .setDefaultValue(Config.DEFAULT.machineLodInterval())
+                .setMin(1)
+                .setMax(100)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startLongField(Component.translatable("ui.machinelib.config.machine_tick_budget"), MachineLib.CONFIG.machineTickBudget())
+                .setSaveConsumer(MachineLib.CONFIG::setMachineTickBudget)
+                .setDefaultValue(Config.DEFAULT.machineTickBudget())
+                .setTooltip(Component.translatable("ui.machinelib.config.machine_tick_budget.tooltip"))
+                .setMin(0)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startIntField(Component.translatable("ui.machinelib.config.active_state_cooldown"), MachineLib.CONFIG.activeStateCooldown())
+                .setSaveConsumer(MachineLib.CONFIG::setActiveStateCooldown)
+                .setDefaultValue(Config.DEFAULT.activeStateCooldown())
+                .setTooltip(Component.translatable("ui.machinelib.config.active_state_cooldown.tooltip"))
+                .setMin(0)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startBooleanToggle(Component.translatable("ui.machinelib.config.async_recipe_resolution"), MachineLib.CONFIG.asyncRecipeResolution())
+                .setSaveConsumer(MachineLib.CONFIG::setAsyncRecipeResolution)
+                .setDefaultValue(Config.DEFAULT.asyncRecipeResolution())
+                .setTooltip(Component.translatable("ui.machinelib.config.async_recipe_resolution.tooltip"))
+                .build()
+        );
+        performance.addEntry(entryBuilder.startLongField(Component.translatable("ui.machinelib.config.machine_watchdog_threshold"), MachineLib.CONFIG.machineWatchdogThreshold())
+                .setSaveConsumer(MachineLib.CONFIG::setMachineWatchdogThreshold)
+                .setDefaultValue(Config.DEFAULT.machineWatchdogThreshold())
+                .setTooltip(Component.translatable("ui.machinelib.config.machine_watchdog_threshold.tooltip"))
+                .setMin(0)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startIntField(Component.translatable("ui.machinelib.config.machine_watchdog_interval"), MachineLib.CONFIG.machineWatchdogInterval())
+                .setSaveConsumer(MachineLib.CONFIG::setMachineWatchdogInterval)
+                .setDefaultValue(Config.DEFAULT.machineWatchdogInterval())
+                .setTooltip(Component.translatable("ui.machinelib.config.machine_watchdog_interval.tooltip"))
+                .setMin(1)
+                .setMax(200)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startBooleanToggle(Component.translatable("ui.machinelib.config.steady_state_fast_forward"), MachineLib.CONFIG.steadyStateFastForward())
+                .setSaveConsumer(MachineLib.CONFIG::setSteadyStateFastForward)
+                .setDefaultValue(Config.DEFAULT.steadyStateFastForward())
+                .setTooltip(Component.translatable("ui.machinelib.config.steady_state_fast_forward.tooltip"))
+                .build()
+        );
+        performance.addEntry(entryBuilder.startIntField(Component.translatable("ui.machinelib.config.steady_state_max_stride"), MachineLib.CONFIG.steadyStateMaxStride())
+                .setSaveConsumer(MachineLib.CONFIG::setSteadyStateMaxStride)
+                .setDefaultValue(Config.DEFAULT.steadyStateMaxStride())
+                .setTooltip(Component.translatable("ui.machinelib.config.steady_state_max_stride.tooltip"))
+                .setMin(1)
+                .setMax(1200)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startBooleanToggle(Component.translatable("ui.machinelib.config.dormant_structure_machines"), MachineLib.CONFIG.dormantStructureMachines())
+                .setSaveConsumer(MachineLib.CONFIG::setDormantStructureMachines)
+                .setDefaultValue(Config.DEFAULT.dormantStructureMachines())
+                .setTooltip(Component.translatable("ui.machinelib.config.dormant_structure_machines.tooltip"))
+                .build()
+        );
+        performance.addEntry(entryBuilder.startBooleanToggle(Component.translatable("ui.machinelib.config.indexed_recipe_lookup"), MachineLib.CONFIG.indexedRecipeLookup())
+                .setSaveConsumer(MachineLib.CONFIG::setIndexedRecipeLookup)
+                .setDefaultValue(Config.DEFAULT.indexedRecipeLookup())
+                .setTooltip(Component.translatable("ui.machinelib.config.indexed_recipe_lookup.tooltip"))
+                .build()
+        );
+        performance.addEntry(entryBuilder.startIntField(Component.translatable("ui.machinelib.config.negative_recipe_cache_size"), MachineLib.CONFIG.negativeRecipeCacheSize())
+                .setSaveConsumer(MachineLib.CONFIG::setNegativeRecipeCacheSize)
+                .setDefaultValue(Config.DEFAULT.negativeRecipeCacheSize())
+                .setTooltip(Component.translatable("ui.machinelib.config.negative_recipe_cache_size.tooltip"))
+                .setMin(0)
+                .build()
+        );
+        performance.addEntry(entryBuilder.startIntField(Component.translatable("ui.machinelib.config.shared_recipe_cache_size"), MachineLib.CONFIG.sharedRecipeCacheSize())
+                .setSaveConsumer(MachineLib.CONFIG::setSharedRecipeCacheSize)
+                .setDefaultValue(Config.DEFAULT.sharedRecipeCacheSize())
+                .setTooltip(Component.translatable("ui.machinelib.config.shared_recipe_cache_size.tooltip"))
+                .setMin(0)
+                .build()
+        );
+
 //        ConfigCategory debug = builder.getOrCreateCategory(Component.translatable("ui.machinelib.config.category.debug"));
         return builder.build();
     }
@@ -80,6 +80,9 @@ interface Nbt {
         String STATE = "State";
         String STATUS = "Status";
         String POWERED = "Powered";
+        String SAVE_TIME = "SaveTime";
+        String HYDRATED = "Hydrated";
+        String CONTROLLER = "Controller";
     }
 
     interface ScreenTexture {
@@ -165,6 +168,8 @@ interface TranslationKey {
         String STATUS_CAPACITOR_FULL = "status.machinelib.capacitor_full";
         String STATUS_ACTIVE = "status.machinelib.active";
         String STATUS_IDLE = "status.machinelib.idle";
+        String STATUS_SEARCHING = "status.machinelib.searching";
+        String STATUS_INCOMPLETE_STRUCTURE = "status.machinelib.incomplete_structure";
 
         String CURRENT_ENERGY = "ui.machinelib.machine.current_energy";
 
@@ -23,7 +23,14 @@
 package dev.galacticraft.machinelib.impl;
 
 import dev.galacticraft.machinelib.api.config.Config;
+import dev.galacticraft.machinelib.impl.block.entity.MachineTickManager;
+import dev.galacticraft.machinelib.impl.command.MachineLibCommands;
+import dev.galacticraft.machinelib.impl.metrics.MachineSampler;
 import dev.galacticraft.machinelib.impl.network.MachineLibC2SPackets;
+import dev.galacticraft.machinelib.impl.recipe.NegativeRecipeCache;
+import dev.galacticraft.machinelib.impl.recipe.RecipeIndex;
+import dev.galacticraft.machinelib.impl.recipe.SharedRecipeCache;
+import dev.galacticraft.machinelib.impl.replay.MachineRecorder;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariantAttributes;
 import net.fabricmc.loader.api.FabricLoader;
@@ -39,6 +46,13 @@ public final class MachineLib implements ModInitializer {
     @Override
     public void onInitialize() {
         MachineLibC2SPackets.register();
+        MachineTickManager.register();
+        MachineSampler.register();
+        MachineRecorder.register();
+        RecipeIndex.register();
+        NegativeRecipeCache.register();
+        SharedRecipeCache.register();
+        MachineLibCommands.register();
 
         if (CONFIG.enableColoredVanillaFluidNames()) {
             FluidVariantAttributes.enableColoredVanillaFluidNames();
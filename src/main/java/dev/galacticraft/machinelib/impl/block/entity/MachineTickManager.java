@@ -0,0 +1,1160 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.impl.block.entity;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.block.entity.PhasedMachineBlockEntity;
+import dev.galacticraft.machinelib.api.machine.MachineType;
+import dev.galacticraft.machinelib.api.metrics.TickHistogram;
+import dev.galacticraft.machinelib.impl.Constant;
+import dev.galacticraft.machinelib.impl.MachineLib;
+import dev.galacticraft.machinelib.impl.metrics.MachineSampler;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.fabricmc.fabric.api.transfer.v1.fluid.FluidStorage;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemStorage;
+import net.minecraft.CrashReport;
+import net.minecraft.CrashReportCategory;
+import net.minecraft.ReportedException;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+import team.reborn.energy.api.EnergyStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ticks all loaded {@link MachineBlockEntity machines} of a level at the end of the level tick.
+ * <p>
+ * Machines are grouped by {@link MachineType} and stored in dense arrays, so that every type is ticked in a tight loop
+ * with a single profiler section.
+ * Machines register themselves when they are added to a level ({@link MachineBlockEntity#clearRemoved()})
+ * and unregister themselves when they are removed or unloaded ({@link MachineBlockEntity#setRemoved()}).
+ * <p>
+ * Machines that are far away from every player (and have no open menu) are only updated every few ticks.
+ * Every update is passed the exact number of ticks that passed since the previous one, so no throughput is lost.
+ * Ticks spent sleeping or in unloaded chunks are not credited, except for machines that opt into
+ * {@link MachineBlockEntity#getMaxCatchUpTicks() catching up} after their chunk is loaded again.
+ * <p>
+ * The time spent ticking machines on the server thread can be limited by a global per-tick budget.
+ * Machines that do not fit into the budget are deferred to the next tick and ticking resumes from the first deferred
+ * machine (round-robin), so no machine starves. Deferred machines are credited the missed ticks on their next update.
+ * <p>
+ * When parallel ticking is enabled, machines are partitioned into islands of adjacent machines.
+ * Islands that only contain {@link MachineBlockEntity#supportsParallelTicking() parallel-safe} machines and do not border
+ * any other storage are ticked concurrently. All block updates and machine events caused by these machines are deferred
+ * and applied afterwards on the server thread, in manager order. Every other island is then ticked serially on the
+ * server thread, as a whole. As islands cannot interact with each other, this produces the same results as ticking
+ * every machine serially. Parallel islands are always ticked in full; the time they take is only charged to the
+ * tick budget afterwards, which may defer serial machines instead.
+ * <p>
+ * {@link PhasedMachineBlockEntity Phased machines} are ticked in batches per type: every machine gathers, then every
+ * machine computes (concurrently, when parallel ticking is enabled), then every machine commits.
+ */
+@ApiStatus.Internal
+public final class MachineTickManager {
+    private static final Map<ServerLevel, MachineTickManager> MANAGERS = new Reference2ObjectOpenHashMap<>();
+    private static @Nullable ForkJoinPool pool = null;
+
+    /**
+     * The time (in nanoseconds) left for ticking machines during the current server tick.
+     */
+    private static long budgetRemaining = Long.MAX_VALUE;
+    /**
+     * The number of machine updates deferred during the previous server tick, across all levels.
+     */
+    private static int deferredLastTick = 0;
+    private static int deferredThisTick = 0;
+
+    /**
+     * How often (in ticks) the distance between machines and players is re-evaluated.
+     */
+    private static final int LOD_UPDATE_INTERVAL = 20;
+
+    /**
+     * The minimum number of phased machines computed at once for the compute phase to be split across worker threads.
+     */
+    private static final int PARALLEL_COMPUTE_THRESHOLD = 16;
+
+    /**
+     * The smoothing factor of the moving average cost tracked by the watchdog
+     * (each update contributes 1/{@value} of the average).
+     */
+    private static final int WATCHDOG_SMOOTHING = 8;
+
+    /**
+     * The number of times the watchdog throttled a machine, across all levels.
+     */
+    private static long watchdogTrips = 0;
+
+    private final ServerLevel level;
+    private final Reference2ObjectLinkedOpenHashMap<MachineType<?, ?>, Group> groups = new Reference2ObjectLinkedOpenHashMap<>();
+    private final ObjectArrayList<Group> groupList = new ObjectArrayList<>();
+
+    /**
+     * Machines added or removed while the manager is ticking.
+     * These are applied once all machines have been ticked, to avoid modifying the arrays while iterating over them.
+     */
+    private final ObjectArrayList<MachineBlockEntity> pending = new ObjectArrayList<>();
+    private final BooleanArrayList pendingAdd = new BooleanArrayList();
+    private boolean ticking = false;
+
+    /**
+     * Machines that were changed outside of their own tick, flushed once at the end of the level tick.
+     *
+     * @see MachineBlockEntity#setChanged()
+     */
+    private final ObjectArrayList<MachineBlockEntity> changed = new ObjectArrayList<>();
+
+    /**
+     * The current partitioning of the machines into islands, or {@code null} if it needs to be recomputed.
+     */
+    private @Nullable Islands islands = null;
+
+    /**
+     * The game time at which the update intervals of all machines are next re-evaluated.
+     */
+    private long nextLodUpdate = 0;
+
+    /**
+     * The (flat) index of the first machine to tick, used to resume ticking after running out of budget.
+     */
+    private int cursor = 0;
+
+    /**
+     * The number of machines currently throttled by the watchdog.
+     */
+    private int throttled = 0;
+
+    /**
+     * The number of periodic tasks run by machines during the current tick, and its distribution over past ticks.
+     * A flat distribution means the periodic work of the machines is spread evenly.
+     *
+     * @see MachineBlockEntity#schedulePeriodic
+     */
+    private final AtomicInteger periodicWork = new AtomicInteger();
+    private final TickHistogram periodicWorkHistogram = TickHistogram.create();
+
+    /**
+     * Scratch lists used while ticking a batch of phased machines.
+     */
+    private final IntArrayList phasedIndices = new IntArrayList();
+    private final ObjectArrayList<BlockState> phasedStates = new ObjectArrayList<>();
+    private final ObjectArrayList<PhasedMachineBlockEntity> computing = new ObjectArrayList<>();
+
+    private MachineTickManager(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static void register() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            long budget = MachineLib.CONFIG.machineTickBudget();
+            budgetRemaining = budget > 0 ? budget : Long.MAX_VALUE;
+            deferredLastTick = deferredThisTick;
+            deferredThisTick = 0;
+        });
+        ServerTickEvents.END_WORLD_TICK.register(level -> {
+            MachineTickManager manager = MANAGERS.get(level);
+            if (manager != null) manager.tick();
+        });
+        ServerWorldEvents.UNLOAD.register((server, level) -> MANAGERS.remove(level));
+    }
+
+    public static @NotNull MachineTickManager get(@NotNull ServerLevel level) {
+        return MANAGERS.computeIfAbsent(level, MachineTickManager::new);
+    }
+
+    public static @Nullable MachineTickManager getIfPresent(@NotNull ServerLevel level) {
+        return MANAGERS.get(level);
+    }
+
+    public @NotNull ServerLevel getLevel() {
+        return this.level;
+    }
+
+    /**
+     * Returns the number of machine updates that were deferred during the previous server tick
+     * because the tick budget was exhausted.
+     *
+     * @return the number of deferred machine updates.
+     */
+    public static int getDeferredLastTick() {
+        return deferredLastTick;
+    }
+
+    /**
+     * Returns the number of machines that were throttled by the watchdog since the server started.
+     *
+     * @return the number of times a machine was throttled.
+     */
+    public static long getWatchdogTrips() {
+        return watchdogTrips;
+    }
+
+    /**
+     * Returns the number of machines of this level that are currently throttled by the watchdog.
+     *
+     * @return the number of throttled machines.
+     */
+    public int getThrottledCount() {
+        return this.throttled;
+    }
+
+    public void add(@NotNull MachineBlockEntity machine) {
+        if (this.ticking) {
+            this.pending.add(machine);
+            this.pendingAdd.add(true);
+        } else {
+            Group group = this.groups.get(machine.getMachineType());
+            if (group == null) {
+                group = new Group(machine.getMachineType());
+                this.groups.put(machine.getMachineType(), group);
+                this.groupList.add(group);
+            }
+            group.add(machine, this.level.getGameTime());
+            this.islands = null;
+        }
+    }
+
+    public void remove(@NotNull MachineBlockEntity machine) {
+        if (this.ticking) {
+            this.pending.add(machine);
+            this.pendingAdd.add(false);
+        } else {
+            Group group = this.groups.get(machine.getMachineType());
+            if (group != null && group.remove(machine)) this.throttled--;
+            this.islands = null;
+        }
+    }
+
+    /**
+     * Queues a machine to {@link MachineBlockEntity#flushChanges() flush its changes} at the end of the level tick.
+     *
+     * @param machine the changed machine.
+     */
+    public void queueChanged(@NotNull MachineBlockEntity machine) {
+        this.changed.add(machine);
+    }
+
+    /**
+     * Marks the island partitioning as outdated.
+     * Called when the surroundings of a machine change.
+     */
+    public void invalidateIslands() {
+        this.islands = null;
+    }
+
+    /**
+     * Returns the number of machines currently registered to this manager.
+     *
+     * @return the number of machines currently registered to this manager.
+     */
+    public int size() {
+        int size = 0;
+        for (Group group : this.groups.values()) {
+            size += group.size;
+        }
+        return size;
+    }
+
+    private void tick() {
+        this.flushChanges();
+        if (!this.level.tickRateManager().runsNormally()) return;
+
+        ProfilerFiller profiler = this.level.getProfiler();
+        profiler.push("machines");
+        long time = this.level.getGameTime();
+        if (time >= this.nextLodUpdate) {
+            this.nextLodUpdate = time + LOD_UPDATE_INTERVAL;
+            profiler.push("lod");
+            this.updateIntervals();
+            profiler.pop();
+        }
+
+        this.ticking = true;
+        try {
+            if (MachineLib.CONFIG.parallelMachineTicking()) {
+                if (this.islands == null) {
+                    profiler.push("partition");
+                    this.islands = this.partition(this.collectMachines());
+                    profiler.pop();
+                }
+                this.tickIslands(this.islands, time, false, profiler);
+                this.tickPhasedGroups(time, profiler);
+            } else {
+                this.tickGroups(time, profiler);
+            }
+        } finally {
+            this.ticking = false;
+            this.applyPending();
+        }
+        this.periodicWorkHistogram.record(this.periodicWork.getAndSet(0));
+        profiler.pop();
+    }
+
+    /**
+     * Records that a machine ran periodic tasks during the current tick.
+     * May be called from worker threads.
+     *
+     * @param tasks the number of tasks run.
+     */
+    public void recordPeriodicWork(int tasks) {
+        this.periodicWork.addAndGet(tasks);
+    }
+
+    /**
+     * Returns the distribution of the number of periodic tasks run per tick in this level.
+     *
+     * @return the per-tick periodic work histogram.
+     */
+    public @NotNull TickHistogram getPeriodicWork() {
+        return this.periodicWorkHistogram;
+    }
+
+    /**
+     * Flushes the changes of every machine that was changed outside of its own tick.
+     */
+    private void flushChanges() {
+        for (int i = 0; i < this.changed.size(); i++) {
+            MachineBlockEntity machine = this.changed.get(i);
+            if (!machine.isRemoved()) machine.flushChanges();
+        }
+        this.changed.clear();
+    }
+
+    /**
+     * Ticks the given machines once, either serially in the given order or partitioned into islands.
+     * Ignores the update interval of the machines.
+     *
+     * @param machines the machines to tick.
+     * @param parallel whether to tick independent islands in parallel.
+     * @return the number of islands that were ticked in parallel.
+     */
+    @VisibleForTesting
+    public int tickMachines(@NotNull List<MachineBlockEntity> machines, boolean parallel) {
+        ProfilerFiller profiler = this.level.getProfiler();
+        long time = this.level.getGameTime();
+        this.ticking = true;
+        try {
+            if (parallel) {
+                Islands islands = this.partition(machines);
+                this.tickIslands(islands, time, true, profiler);
+                return islands.parallel().size();
+            } else {
+                for (MachineBlockEntity machine : machines) {
+                    Group group = this.groups.get(machine.getMachineType());
+                    int index = group == null ? -1 : group.indices.getInt(machine);
+                    if (index != -1) this.tickMachine(group, index, time, true, profiler);
+                }
+                return 0;
+            }
+        } finally {
+            this.ticking = false;
+            this.applyPending();
+        }
+    }
+
+    /**
+     * Ticks every machine serially, type by type, starting at the {@link #cursor}.
+     * Stops once the tick budget is exhausted.
+     *
+     * @param time     the current game time.
+     * @param profiler the level profiler.
+     */
+    private void tickGroups(long time, @NotNull ProfilerFiller profiler) {
+        int total = this.size();
+        if (total == 0) return;
+        int start = this.cursor < total ? this.cursor : 0;
+
+        int g = 0;
+        int i = start;
+        while (i >= this.groupList.get(g).size) {
+            i -= this.groupList.get(g).size;
+            g++;
+        }
+
+        long startTime = System.nanoTime();
+        Group current = null;
+        for (int n = 0; n < total; ) {
+            while (i >= this.groupList.get(g).size) {
+                i = 0;
+                g = (g + 1) % this.groupList.size();
+            }
+            Group group = this.groupList.get(g);
+            if (group != current) {
+                if (current != null) profiler.pop();
+                profiler.push(group.name);
+                current = group;
+            }
+            if (n > 0 && System.nanoTime() - startTime >= budgetRemaining) {
+                this.defer(total - n, profiler);
+                this.cursor = (start + n) % total;
+                break;
+            }
+            if (group.phased) {
+                int end = Math.min(group.size, i + (total - n));
+                this.tickPhased(group, i, end, time, profiler);
+                n += end - i;
+                i = end;
+            } else {
+                this.tickMachine(group, i++, time, false, profiler);
+                n++;
+            }
+        }
+        if (current != null) profiler.pop();
+        budgetRemaining -= Math.min(budgetRemaining, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Records that the given number of machine updates were deferred to the next tick.
+     *
+     * @param count    the number of deferred machines.
+     * @param profiler the level profiler.
+     */
+    private void defer(int count, @NotNull ProfilerFiller profiler) {
+        deferredThisTick += count;
+        profiler.incrementCounter("deferred", count);
+    }
+
+    /**
+     * Re-evaluates how often every machine is updated, based on the distance to the closest player.
+     */
+    private void updateIntervals() {
+        int lodInterval = MachineLib.CONFIG.machineLodInterval();
+        long radius = MachineLib.CONFIG.machineLodRadius();
+        long radiusSq = radius * radius;
+        List<ServerPlayer> players = this.level.players();
+
+        for (Group group : this.groups.values()) {
+            for (int i = 0; i < group.size; i++) {
+                int interval = 1;
+                if (lodInterval > 1) {
+                    interval = lodInterval;
+                    BlockPos pos = group.machines[i].getBlockPos();
+                    for (ServerPlayer player : players) {
+                        if (player.distanceToSqr(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5) <= radiusSq) {
+                            interval = 1;
+                            break;
+                        }
+                    }
+                }
+                group.intervals[i] = interval;
+            }
+        }
+    }
+
+    private void tickIslands(@NotNull Islands islands, long time, boolean force, @NotNull ProfilerFiller profiler) {
+        if (!islands.parallel().isEmpty()) {
+            profiler.push("parallel");
+            long startTime = System.nanoTime();
+            List<Callable<Failure>> tasks = new ArrayList<>(islands.parallel().size());
+            for (Island island : islands.parallel()) {
+                island.prepare(this.level, time, force);
+                tasks.add(() -> island.tick(this.level));
+            }
+
+            List<Future<Failure>> results = getPool().invokeAll(tasks);
+
+            for (Island island : islands.parallel()) {
+                island.commit(this.level, time);
+                for (int i = 0; i < island.machines.length; i++) {
+                    if (island.outcomes[i] == Island.TICKED) this.afterUpdate(island.groups[i], island.indices[i]);
+                }
+            }
+            for (Future<Failure> result : results) {
+                Failure failure;
+                try {
+                    failure = result.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new RuntimeException("Failed to tick machines in parallel", e);
+                }
+                if (failure != null) throw crash(failure.machine(), failure.throwable());
+            }
+            budgetRemaining -= Math.min(budgetRemaining, System.nanoTime() - startTime);
+            profiler.pop();
+        }
+
+        profiler.push("serial");
+        int total = islands.serialGroups().length;
+        int start = force || this.cursor >= total ? 0 : this.cursor;
+        long startTime = System.nanoTime();
+        for (int n = 0; n < total; n++) {
+            if (!force && n > 0 && System.nanoTime() - startTime >= budgetRemaining) {
+                this.defer(total - n, profiler);
+                this.cursor = (start + n) % total;
+                break;
+            }
+            int i = (start + n) % total;
+            this.tickMachine(islands.serialGroups()[i], islands.serialIndices()[i], time, force, profiler);
+        }
+        budgetRemaining -= Math.min(budgetRemaining, System.nanoTime() - startTime);
+        profiler.pop();
+    }
+
+    /**
+     * Ticks a single machine on the server thread, if it is due.
+     *
+     * @param group    the group of the machine.
+     * @param index    the index of the machine in its group.
+     * @param time     the current game time.
+     * @param force    whether to tick the machine once, regardless of its update interval.
+     * @param profiler the level profiler.
+     */
+    private void tickMachine(@NotNull Group group, int index, long time, boolean force, @NotNull ProfilerFiller profiler) {
+        MachineBlockEntity machine = group.machines[index];
+        int ticks = this.getDueTicks(group, index, time, force);
+        if (ticks == 0) return;
+
+        BlockPos pos = machine.getBlockPos();
+        BlockState state = this.level.getBlockState(pos);
+        if (!machine.getType().isValid(state)) {
+            group.lastTicks[index] = time;
+            return;
+        }
+
+        try {
+            machine.tickBase(this.level, pos, state, profiler, withCatchUp(machine, ticks));
+        } catch (Throwable throwable) {
+            throw crash(machine, throwable);
+        }
+        group.lastTicks[index] = time;
+        this.afterUpdate(group, index);
+    }
+
+    /**
+     * Returns the number of ticks to simulate if the machine is due for an update, or {@code 0} otherwise.
+     * Sleeping machines and machines in chunks that are not ticking are skipped without being credited the missed ticks.
+     *
+     * @param group the group of the machine.
+     * @param index the index of the machine in its group.
+     * @param time  the current game time.
+     * @param force whether to tick the machine once, regardless of its update interval.
+     * @return the number of ticks to simulate.
+     */
+    private int getDueTicks(@NotNull Group group, int index, long time, boolean force) {
+        MachineBlockEntity machine = group.machines[index];
+        if (machine.isRemoved()) return 0;
+        if (machine.isSleeping() || !this.level.shouldTickBlocksAt(machine.getBlockPos())) {
+            group.lastTicks[index] = time;
+            return 0;
+        }
+        return force ? 1 : group.getDueTicks(index, time);
+    }
+
+    /**
+     * Adds the ticks a machine missed while its chunk was unloaded (if it supports catching up) to an update.
+     * Only called once the machine is about to update, so a machine that is skipped (for example, while sleeping) keeps them.
+     *
+     * @param machine the machine.
+     * @param ticks   the number of ticks the update simulates.
+     * @return the number of ticks to simulate, including the missed ticks.
+     */
+    private static int withCatchUp(@NotNull MachineBlockEntity machine, int ticks) {
+        return (int) Math.min((long) ticks + machine.takeCatchUpTicks(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ticks every phased machine group, in batches.
+     *
+     * @param time     the current game time.
+     * @param profiler the level profiler.
+     */
+    private void tickPhasedGroups(long time, @NotNull ProfilerFiller profiler) {
+        long startTime = System.nanoTime();
+        for (int g = 0; g < this.groupList.size(); g++) {
+            Group group = this.groupList.get(g);
+            if (group.phased && group.size > 0) {
+                profiler.push(group.name);
+                this.tickPhased(group, 0, group.size, time, profiler);
+                profiler.pop();
+            }
+        }
+        budgetRemaining -= Math.min(budgetRemaining, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Ticks a range of machines of a phased group: gathers for every machine, then computes (in parallel, if enabled),
+     * then commits for every machine, in order.
+     *
+     * @param group    the group of the machines.
+     * @param from     the index of the first machine to tick (inclusive).
+     * @param to       the index of the last machine to tick (exclusive).
+     * @param time     the current game time.
+     * @param profiler the level profiler.
+     */
+    private void tickPhased(@NotNull Group group, int from, int to, long time, @NotNull ProfilerFiller profiler) {
+        profiler.push("gather");
+        for (int index = from; index < to; index++) {
+            if (!(group.machines[index] instanceof PhasedMachineBlockEntity machine)) {
+                this.tickMachine(group, index, time, false, profiler);
+                continue;
+            }
+            int ticks = this.getDueTicks(group, index, time, false);
+            if (ticks == 0) continue;
+
+            BlockState state = this.level.getBlockState(machine.getBlockPos());
+            if (!machine.getType().isValid(state)) {
+                group.lastTicks[index] = time;
+                continue;
+            }
+
+            boolean enabled;
+            try {
+                enabled = machine.beginPhases(this.level, machine.getBlockPos(), state, profiler, withCatchUp(machine, ticks));
+            } catch (Throwable throwable) {
+                throw crash(machine, throwable);
+            }
+            this.phasedIndices.add(index);
+            this.phasedStates.add(state);
+            if (enabled) this.computing.add(machine);
+        }
+
+        try {
+            profiler.popPush("compute");
+            this.computePhases(this.computing);
+
+            profiler.popPush("commit");
+            for (int i = 0; i < this.phasedIndices.size(); i++) {
+                int index = this.phasedIndices.getInt(i);
+                PhasedMachineBlockEntity machine = (PhasedMachineBlockEntity) group.machines[index];
+                if (machine.isRemoved()) continue;
+                try {
+                    machine.finishPhases(this.level, machine.getBlockPos(), this.phasedStates.get(i), profiler);
+                } catch (Throwable throwable) {
+                    throw crash(machine, throwable);
+                }
+                group.lastTicks[index] = time;
+                this.afterUpdate(group, index);
+            }
+        } finally {
+            this.phasedIndices.clear();
+            this.phasedStates.clear();
+            this.computing.clear();
+        }
+        profiler.pop();
+    }
+
+    /**
+     * Runs the compute phase of the given machines.
+     * When parallel ticking is enabled, the machines are split into chunks that are computed concurrently.
+     *
+     * @param machines the machines to compute.
+     */
+    private void computePhases(@NotNull List<PhasedMachineBlockEntity> machines) {
+        int size = machines.size();
+        if (size < PARALLEL_COMPUTE_THRESHOLD || !MachineLib.CONFIG.parallelMachineTicking()) {
+            for (int i = 0; i < size; i++) {
+                PhasedMachineBlockEntity machine = machines.get(i);
+                try {
+                    machine.computePhase();
+                } catch (Throwable throwable) {
+                    throw crash(machine, throwable);
+                }
+            }
+            return;
+        }
+
+        ForkJoinPool pool = getPool();
+        int chunk = Math.max(PARALLEL_COMPUTE_THRESHOLD / 2, (size + pool.getParallelism() - 1) / pool.getParallelism());
+        List<Callable<Failure>> tasks = new ArrayList<>((size + chunk - 1) / chunk);
+        for (int start = 0; start < size; start += chunk) {
+            int from = start;
+            int to = Math.min(size, start + chunk);
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    PhasedMachineBlockEntity machine = machines.get(i);
+                    try {
+                        machine.computePhase();
+                    } catch (Throwable throwable) {
+                        return new Failure(machine, throwable);
+                    }
+                }
+                return null;
+            });
+        }
+
+        for (Future<Failure> result : pool.invokeAll(tasks)) {
+            Failure failure;
+            try {
+                failure = result.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Failed to compute machines in parallel", e);
+            }
+            if (failure != null) throw crash(failure.machine(), failure.throwable());
+        }
+    }
+
+    /**
+     * Records the cost of a machine after it was ticked.
+     *
+     * @param group the group of the machine.
+     * @param index the index of the machine in its group.
+     */
+    private void afterUpdate(@NotNull Group group, int index) {
+        MachineSampler sampler = MachineSampler.current();
+        if (sampler != null) sampler.record(this.level, group.name, group.machines[index]);
+        this.watch(group, index);
+    }
+
+    /**
+     * Updates the moving average cost of a machine after it was ticked, and throttles or restores it if needed.
+     * A machine is throttled once its average cost per simulated tick exceeds the watchdog threshold
+     * and restored once it falls below half of the threshold.
+     * The cost is divided by the number of ticks simulated by the update, so that catch-up, reduced-rate and throttled updates
+     * (which simulate many ticks at once) are not mistaken for slow machines.
+     *
+     * @param group the group of the machine.
+     * @param index the index of the machine in its group.
+     */
+    private void watch(@NotNull Group group, int index) {
+        MachineBlockEntity machine = group.machines[index];
+        long cost = machine.getLastUpdateNanos() / Math.max(1, machine.getLastUpdateTicks());
+        long average = group.costs[index] += (cost - group.costs[index]) / WATCHDOG_SMOOTHING;
+        long threshold = MachineLib.CONFIG.machineWatchdogThreshold();
+
+        if (!group.throttled[index]) {
+            if (threshold > 0 && average > threshold) {
+                group.throttled[index] = true;
+                this.throttled++;
+                watchdogTrips++;
+                // logged once each time the machine becomes throttled - it is not logged again until it has recovered
+                MachineLib.LOGGER.warn("Machine {} at {} in {} takes {}µs per tick (mostly in '{}'), throttling it to one update every {} ticks",
+                        group.name, machine.getBlockPos().toShortString(), this.level.dimension().location(),
+                        average / 1000, machine.getSlowestPhase().getId(), MachineLib.CONFIG.machineWatchdogInterval());
+            }
+        } else if (threshold <= 0 || average < threshold / 2) {
+            group.throttled[index] = false;
+            this.throttled--;
+            MachineLib.LOGGER.debug("Machine {} at {} in {} recovered, no longer throttling it",
+                    group.name, machine.getBlockPos().toShortString(), this.level.dimension().location());
+        }
+    }
+
+    private static @NotNull ReportedException crash(@NotNull MachineBlockEntity machine, @NotNull Throwable throwable) {
+        CrashReport report = CrashReport.forThrowable(throwable, "Ticking block entity");
+        CrashReportCategory category = report.addCategory("Block entity being ticked");
+        machine.fillCrashReportCategory(category);
+        return new ReportedException(report);
+    }
+
+    /**
+     * Collects the machines to partition into islands.
+     * Phased machines are excluded, as they are ticked in batches by {@link #tickPhasedGroups(long, ProfilerFiller)}.
+     *
+     * @return the machines to partition.
+     */
+    private @NotNull List<MachineBlockEntity> collectMachines() {
+        List<MachineBlockEntity> machines = new ArrayList<>(this.size());
+        for (Group group : this.groups.values()) {
+            if (group.phased) continue;
+            machines.addAll(Arrays.asList(group.machines).subList(0, group.size));
+        }
+        return machines;
+    }
+
+    /**
+     * Partitions the given machines into islands of adjacent machines.
+     * Machine order is preserved within islands and in the serial list.
+     * Machines that are not registered to this manager are ignored.
+     *
+     * @param machines the machines to partition.
+     * @return the islands.
+     */
+    private @NotNull Islands partition(@NotNull List<MachineBlockEntity> machines) {
+        int size = machines.size();
+        Long2IntOpenHashMap indices = new Long2IntOpenHashMap(size);
+        indices.defaultReturnValue(-1);
+        for (int i = 0; i < size; i++) {
+            indices.put(machines.get(i).getBlockPos().asLong(), i);
+        }
+
+        int[] parent = new int[size];
+        boolean[] serial = new boolean[size];
+        MachineBlockEntity[][] neighbors = new MachineBlockEntity[size][];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+
+        for (int i = 0; i < size; i++) {
+            MachineBlockEntity machine = machines.get(i);
+            BlockPos pos = machine.getBlockPos();
+            serial[i] = !machine.supportsParallelTicking();
+            neighbors[i] = new MachineBlockEntity[Constant.Cache.DIRECTIONS.length];
+            for (Direction direction : Constant.Cache.DIRECTIONS) {
+                BlockPos adjacent = pos.relative(direction);
+                int j = indices.get(adjacent.asLong());
+                if (j != -1) {
+                    neighbors[i][direction.ordinal()] = machines.get(j);
+                    union(parent, i, j);
+                } else if (this.exposesStorage(adjacent, direction.getOpposite())) {
+                    serial[i] = true;
+                }
+            }
+        }
+
+        boolean[] serialRoot = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            if (serial[i]) serialRoot[find(parent, i)] = true;
+        }
+
+        List<Group> serialGroups = new ArrayList<>();
+        IntArrayList serialIndices = new IntArrayList();
+        Int2ObjectLinkedOpenHashMap<IntArrayList> members = new Int2ObjectLinkedOpenHashMap<>();
+        for (int i = 0; i < size; i++) {
+            MachineBlockEntity machine = machines.get(i);
+            Group group = this.groups.get(machine.getMachineType());
+            int index = group == null ? -1 : group.indices.getInt(machine);
+            if (index == -1) continue;
+
+            int root = find(parent, i);
+            if (serialRoot[root]) {
+                serialGroups.add(group);
+                serialIndices.add(index);
+            } else {
+                members.computeIfAbsent(root, k -> new IntArrayList()).add(i);
+            }
+        }
+
+        List<Island> islands = new ArrayList<>(members.size());
+        for (IntArrayList ids : members.values()) {
+            int length = ids.size();
+            Group[] islandGroups = new Group[length];
+            int[] islandIndices = new int[length];
+            MachineBlockEntity[][] islandNeighbors = new MachineBlockEntity[length][];
+            for (int i = 0; i < length; i++) {
+                MachineBlockEntity machine = machines.get(ids.getInt(i));
+                islandGroups[i] = this.groups.get(machine.getMachineType());
+                islandIndices[i] = islandGroups[i].indices.getInt(machine);
+                islandNeighbors[i] = neighbors[ids.getInt(i)];
+            }
+            islands.add(new Island(islandGroups, islandIndices, islandNeighbors));
+        }
+        return new Islands(islands, serialGroups.toArray(new Group[0]), serialIndices.toIntArray());
+    }
+
+    /**
+     * Returns whether the block at the given position may exchange resources with an adjacent machine.
+     * Positions in unloaded chunks and dormant machines are conservatively treated as storages
+     * (looking up the storages of a dormant machine would hydrate it).
+     *
+     * @param pos  the position to check.
+     * @param side the side of the block facing the machine.
+     * @return whether the block exposes any storage.
+     */
+    private boolean exposesStorage(@NotNull BlockPos pos, @NotNull Direction side) {
+        if (this.level.getChunkSource().getChunkNow(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())) == null) {
+            return true;
+        }
+        if (this.level.getBlockEntity(pos) instanceof MachineBlockEntity machine && machine.isDormant()) {
+            return true;
+        }
+        return EnergyStorage.SIDED.find(this.level, pos, side) != null
+                || ItemStorage.SIDED.find(this.level, pos, side) != null
+                || FluidStorage.SIDED.find(this.level, pos, side) != null;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // keep the lowest index as the root, so that island order follows manager order
+            if (rootA < rootB) {
+                parent[rootB] = rootA;
+            } else {
+                parent[rootA] = rootB;
+            }
+        }
+    }
+
+    private static synchronized @NotNull ForkJoinPool getPool() {
+        if (pool == null) {
+            AtomicInteger count = new AtomicInteger();
+            pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName("MachineLib-Worker-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+
+    private void applyPending() {
+        for (int i = 0; i < this.pending.size(); i++) {
+            if (this.pendingAdd.getBoolean(i)) {
+                this.add(this.pending.get(i));
+            } else {
+                this.remove(this.pending.get(i));
+            }
+        }
+        this.pending.clear();
+        this.pendingAdd.clear();
+    }
+
+    private record Islands(@NotNull List<Island> parallel, @NotNull Group @NotNull [] serialGroups, int @NotNull [] serialIndices) {
+    }
+
+    private record Failure(@NotNull MachineBlockEntity machine, @NotNull Throwable throwable) {
+    }
+
+    /**
+     * A set of adjacent machines that can be ticked independently of all other machines.
+     */
+    private static final class Island {
+        private static final byte SKIPPED = 0;
+        private static final byte TICKED = 1;
+        private static final byte RESET = 2;
+
+        private final Group[] groups;
+        private final int[] indices;
+        private final MachineBlockEntity[] machines;
+        private final MachineBlockEntity[][] neighbors;
+        private final BlockState[] states;
+        private final int[] ticks;
+        private final byte[] outcomes;
+
+        private Island(Group[] groups, int[] indices, MachineBlockEntity[][] neighbors) {
+            this.groups = groups;
+            this.indices = indices;
+            this.neighbors = neighbors;
+            this.machines = new MachineBlockEntity[groups.length];
+            for (int i = 0; i < groups.length; i++) {
+                this.machines[i] = groups[i].machines[indices[i]];
+            }
+            this.states = new BlockState[groups.length];
+            this.ticks = new int[groups.length];
+            this.outcomes = new byte[groups.length];
+        }
+
+        /**
+         * Reads everything the machines need from the level and switches them to deferred mode.
+         * Must be called on the server thread.
+         *
+         * @param level the level.
+         * @param time  the current game time.
+         * @param force whether to tick every machine once, regardless of its update interval.
+         */
+        private void prepare(ServerLevel level, long time, boolean force) {
+            for (int i = 0; i < this.machines.length; i++) {
+                MachineBlockEntity machine = this.machines[i];
+                this.ticks[i] = 0;
+                this.outcomes[i] = SKIPPED;
+                if (!machine.isRemoved()) {
+                    if (!level.shouldTickBlocksAt(machine.getBlockPos())) {
+                        this.outcomes[i] = RESET;
+                    } else {
+                        int ticks = force ? 1 : this.groups[i].getDueTicks(this.indices[i], time);
+                        if (ticks > 0) {
+                            this.states[i] = level.getBlockState(machine.getBlockPos());
+                            if (machine.getType().isValid(this.states[i])) {
+                                this.ticks[i] = ticks;
+                            } else {
+                                this.outcomes[i] = RESET;
+                            }
+                        }
+                    }
+                }
+                machine.beginDeferred(this.neighbors[i]);
+            }
+        }
+
+        /**
+         * Ticks every due machine of this island in order.
+         * May be called off the server thread.
+         *
+         * @param level the level.
+         * @return the first failure that occurred, or {@code null}.
+         */
+        private @Nullable Failure tick(ServerLevel level) {
+            for (int i = 0; i < this.machines.length; i++) {
+                MachineBlockEntity machine = this.machines[i];
+                // sleeping is checked here, as an earlier machine of the island may have woken this one up
+                if (machine.isSleeping()) {
+                    this.outcomes[i] = RESET;
+                    continue;
+                }
+                if (this.ticks[i] == 0) continue;
+                try {
+                    machine.tickBase(level, machine.getBlockPos(), this.states[i], InactiveProfiler.INSTANCE, withCatchUp(machine, this.ticks[i]));
+                } catch (Throwable throwable) {
+                    return new Failure(machine, throwable);
+                }
+                this.outcomes[i] = TICKED;
+            }
+            return null;
+        }
+
+        /**
+         * Applies the deferred block updates of every machine, in order.
+         * Must be called on the server thread.
+         *
+         * @param level the level.
+         * @param time  the current game time.
+         */
+        private void commit(ServerLevel level, long time) {
+            for (int i = 0; i < this.machines.length; i++) {
+                this.machines[i].commitDeferred(level);
+                if (this.outcomes[i] != SKIPPED) {
+                    this.groups[i].lastTicks[this.indices[i]] = time;
+                }
+                this.states[i] = null;
+            }
+        }
+    }
+
+    /**
+     * A dense array of all loaded machines of a single type, along with their scheduling state.
+     * Removal swaps the last machine into the freed index.
+     */
+    private static final class Group {
+        private final String name;
+        private final Reference2IntOpenHashMap<MachineBlockEntity> indices = new Reference2IntOpenHashMap<>();
+        private MachineBlockEntity[] machines = new MachineBlockEntity[16];
+        /**
+         * The game time at which each machine was last updated (or skipped while sleeping/unloaded).
+         */
+        private long[] lastTicks = new long[16];
+        /**
+         * How often each machine is updated, in ticks.
+         */
+        private int[] intervals = new int[16];
+        /**
+         * The moving average of the time each machine takes per update, in nanoseconds.
+         */
+        private long[] costs = new long[16];
+        /**
+         * Whether each machine was throttled by the watchdog.
+         */
+        private boolean[] throttled = new boolean[16];
+        private int size = 0;
+        /**
+         * Whether the machines of this group are {@link PhasedMachineBlockEntity phased}.
+         */
+        private boolean phased = false;
+
+        private Group(MachineType<?, ?> type) {
+            this.name = String.valueOf(BuiltInRegistries.BLOCK_ENTITY_TYPE.getKey(type.getBlockEntityType()));
+            this.indices.defaultReturnValue(-1);
+        }
+
+        /**
+         * Returns the number of ticks to simulate if the machine is due for an update, or {@code 0} otherwise.
+         * Updates of machines with a reduced rate are staggered by position.
+         * Machines in a steady state are only updated once per {@link MachineBlockEntity#getFastForwardStride() stride}.
+         *
+         * @param index the index of the machine.
+         * @param time  the current game time.
+         * @return the number of ticks to simulate.
+         */
+        private int getDueTicks(int index, long time) {
+            long elapsed = time - this.lastTicks[index];
+            if (elapsed <= 0) return 0;
+            int interval = this.intervals[index];
+            boolean throttled = this.throttled[index];
+            if (throttled) interval = Math.max(interval, MachineLib.CONFIG.machineWatchdogInterval());
+            if (MachineLib.CONFIG.steadyStateFastForward()) interval = Math.max(interval, this.machines[index].getFastForwardStride());
+            if (interval > 1 && elapsed < interval && (throttled || this.machines[index].getViewers() == 0)
+                    && Math.floorMod(time + this.machines[index].getBlockPos().hashCode(), interval) != 0) {
+                return 0;
+            }
+            return (int) Math.min(elapsed, Integer.MAX_VALUE);
+        }
+
+        private void add(MachineBlockEntity machine, long time) {
+            if (this.indices.containsKey(machine)) return;
+            if (this.size == this.machines.length) {
+                this.machines = Arrays.copyOf(this.machines, this.size * 2);
+                this.lastTicks = Arrays.copyOf(this.lastTicks, this.size * 2);
+                this.intervals = Arrays.copyOf(this.intervals, this.size * 2);
+                this.costs = Arrays.copyOf(this.costs, this.size * 2);
+                this.throttled = Arrays.copyOf(this.throttled, this.size * 2);
+            }
+            if (this.size == 0) this.phased = machine instanceof PhasedMachineBlockEntity;
+            this.indices.put(machine, this.size);
+            this.machines[this.size] = machine;
+            this.lastTicks[this.size] = time - 1;
+            this.intervals[this.size] = 1;
+            this.costs[this.size] = 0;
+            this.throttled[this.size] = false;
+            this.size++;
+        }
+
+        /**
+         * Removes a machine from this group.
+         *
+         * @param machine the machine to remove.
+         * @return whether the removed machine was throttled by the watchdog.
+         */
+        private boolean remove(MachineBlockEntity machine) {
+            int index = this.indices.removeInt(machine);
+            if (index == -1) return false;
+            boolean throttled = this.throttled[index];
+            int last = --this.size;
+            if (index != last) {
+                MachineBlockEntity moved = this.machines[last];
+                this.machines[index] = moved;
+                this.lastTicks[index] = this.lastTicks[last];
+                this.intervals[index] = this.intervals[last];
+                this.costs[index] = this.costs[last];
+                this.throttled[index] = this.throttled[last];
+                this.indices.put(moved, index);
+            }
+            this.machines[last] = null;
+            return throttled;
+        }
+    }
+}
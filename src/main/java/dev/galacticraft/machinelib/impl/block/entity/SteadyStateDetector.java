@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.block.entity;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Detects when the observable state of a machine changes in a fixed cycle.
+ * <p>
+ * Every tick is summarized as a signature (e.g. the status and the changes to the machine's storages).
+ * Consecutive identical signatures are collapsed into runs, and the machine is considered steady once
+ * the most recent runs repeat with the same signatures and lengths twice in a row,
+ * or once the current signature has been repeated for {@link #STABLE_TICKS} ticks (however many runs came before it).
+ * Longer cycles are therefore only detected if none of their runs last that long.
+ */
+@ApiStatus.Internal
+public final class SteadyStateDetector {
+    /**
+     * The number of runs remembered. Cycles of up to {@code (MAX_RUNS - 1) / 2} runs can be detected.
+     */
+    private static final int MAX_RUNS = 8;
+    /**
+     * The number of ticks a single signature must repeat for to be considered a cycle of one tick.
+     */
+    static final int STABLE_TICKS = 20;
+
+    private final long[] signatures = new long[MAX_RUNS];
+    private final int[] lengths = new int[MAX_RUNS];
+    private int head = 0;
+    private int runs = 0;
+
+    /**
+     * Records the signature of a tick.
+     *
+     * @param signature the signature of the tick.
+     * @return the length of the detected cycle in ticks, or {@code 0} if the state is not steady.
+     */
+    public int record(long signature) {
+        if (this.runs > 0 && this.signatures[this.head] == signature) {
+            if (this.lengths[this.head] < Integer.MAX_VALUE) this.lengths[this.head]++;
+            // a long enough run is a cycle of one tick, regardless of what came before it
+            return this.lengths[this.head] >= STABLE_TICKS ? 1 : 0;
+        }
+
+        this.head = (this.head + 1) % MAX_RUNS;
+        this.signatures[this.head] = signature;
+        this.lengths[this.head] = 1;
+        if (this.runs < MAX_RUNS) this.runs++;
+        return this.detect();
+    }
+
+    /**
+     * Forgets all recorded ticks.
+     */
+    public void reset() {
+        this.runs = 0;
+    }
+
+    /**
+     * Checks whether the runs completed before the current one repeat, and the current run starts the cycle again.
+     *
+     * @return the length of the cycle in ticks, or {@code 0} if there is none.
+     */
+    private int detect() {
+        int completed = this.runs - 1;
+        for (int size = 2; size * 2 <= completed; size++) {
+            if (this.signatures[this.index(0)] != this.signatures[this.index(size)]) continue;
+
+            int period = 0;
+            boolean repeats = true;
+            for (int i = 1; i <= size; i++) {
+                int a = this.index(i);
+                int b = this.index(i + size);
+                if (this.signatures[a] != this.signatures[b] || this.lengths[a] != this.lengths[b]) {
+                    repeats = false;
+                    break;
+                }
+                period += this.lengths[a];
+            }
+            if (repeats) return period;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the position of a run in the ring buffer.
+     *
+     * @param age the age of the run; {@code 0} is the current run.
+     * @return the position of the run.
+     */
+    private int index(int age) {
+        return Math.floorMod(this.head - age, MAX_RUNS);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import dev.galacticraft.machinelib.api.metrics.TickHistogram;
+import dev.galacticraft.machinelib.impl.block.entity.MachineTickManager;
+import dev.galacticraft.machinelib.impl.metrics.MachineSampler;
+import dev.galacticraft.machinelib.impl.recipe.NegativeRecipeCache;
+import dev.galacticraft.machinelib.impl.recipe.SharedRecipeCache;
+import dev.galacticraft.machinelib.impl.replay.MachineRecorder;
+import dev.galacticraft.machinelib.impl.replay.MachineRecording;
+import dev.galacticraft.machinelib.impl.replay.MachineReplayer;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The {@code /machinelib} command.
+ * <p>
+ * {@code /machinelib perf [seconds] [count]} samples every machine for the given number of seconds
+ * and reports the most expensive machines, chunks and machine types.
+ * <p>
+ * {@code /machinelib record <name> <from> <to> <seconds>} records the updates of the machines in an area,
+ * and {@code /machinelib replay <name> <pos> [repeat]} replays a recording at the given position and reports how long the updates took.
+ * <p>
+ * {@code /machinelib periodic} reports how evenly the periodic work of machines is spread across ticks in each level.
+ * <p>
+ * {@code /machinelib recipes} reports how effective the recipe caches of each level are.
+ */
+@ApiStatus.Internal
+public final class MachineLibCommands {
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int DEFAULT_COUNT = 10;
+    private static final int MAX_RECORDING_VOLUME = 32768;
+    private static final SimpleCommandExceptionType ALREADY_RUNNING = new SimpleCommandExceptionType(Component.literal("A machine performance sample is already running"));
+    private static final SimpleCommandExceptionType RECORDING_RUNNING = new SimpleCommandExceptionType(Component.literal("A machine recording is already running"));
+    private static final SimpleCommandExceptionType AREA_TOO_LARGE = new SimpleCommandExceptionType(Component.literal("The area to record is too large (at most " + MAX_RECORDING_VOLUME + " blocks)"));
+    private static final SimpleCommandExceptionType NO_MACHINES = new SimpleCommandExceptionType(Component.literal("There are no machines in the area to record"));
+    private static final DynamicCommandExceptionType FAILED_TO_LOAD = new DynamicCommandExceptionType(message -> Component.literal("Failed to load machine recording: " + message));
+    private static final DynamicCommandExceptionType FAILED_TO_REPLAY = new DynamicCommandExceptionType(message -> Component.literal("Failed to replay machine recording: " + message));
+
+    private MachineLibCommands() {
+    }
+
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> register(dispatcher));
+    }
+
+    private static void register(@NotNull CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("machinelib")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("perf")
+                        .executes(context -> perf(context, DEFAULT_SECONDS, DEFAULT_COUNT))
+                        .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 300))
+                                .executes(context -> perf(context, IntegerArgumentType.getInteger(context, "seconds"), DEFAULT_COUNT))
+                                .then(Commands.argument("count", IntegerArgumentType.integer(1, 100))
+                                        .executes(context -> perf(context, IntegerArgumentType.getInteger(context, "seconds"), IntegerArgumentType.getInteger(context, "count"))))))
+                .then(Commands.literal("periodic")
+                        .executes(MachineLibCommands::periodic))
+                .then(Commands.literal("recipes")
+                        .executes(MachineLibCommands::recipes))
+                .then(Commands.literal("record")
+                        .then(Commands.argument("name", StringArgumentType.word())
+                                .then(Commands.argument("from", BlockPosArgument.blockPos())
+                                        .then(Commands.argument("to", BlockPosArgument.blockPos())
+                                                .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 300))
+                                                        .executes(MachineLibCommands::record))))))
+                .then(Commands.literal("replay")
+                        .then(Commands.argument("name", StringArgumentType.word())
+                                .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                        .executes(context -> replay(context, 1))
+                                        .then(Commands.argument("repeat", IntegerArgumentType.integer(1, 1000))
+                                                .executes(context -> replay(context, IntegerArgumentType.getInteger(context, "repeat"))))))));
+    }
+
+    private static int perf(@NotNull CommandContext<CommandSourceStack> context, int seconds, int count) throws CommandSyntaxException {
+        if (!MachineSampler.start(context.getSource(), seconds, count)) {
+            throw ALREADY_RUNNING.create();
+        }
+        context.getSource().sendSuccess(() -> Component.literal("Sampling machines for " + seconds + "s..."), true);
+        return seconds;
+    }
+
+    private static int record(@NotNull CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+        BlockPos from = BlockPosArgument.getLoadedBlockPos(context, "from");
+        BlockPos to = BlockPosArgument.getLoadedBlockPos(context, "to");
+        if ((long) (Math.abs(from.getX() - to.getX()) + 1) * (Math.abs(from.getY() - to.getY()) + 1) * (Math.abs(from.getZ() - to.getZ()) + 1) > MAX_RECORDING_VOLUME) {
+            throw AREA_TOO_LARGE.create();
+        }
+
+        int seconds = IntegerArgumentType.getInteger(context, "seconds");
+        int machines = MachineRecorder.start(source, source.getLevel(), StringArgumentType.getString(context, "name"), from, to, seconds * 20);
+        if (machines < 0) throw RECORDING_RUNNING.create();
+        if (machines == 0) throw NO_MACHINES.create();
+        source.sendSuccess(() -> Component.literal("Recording " + machines + " machines for " + seconds + "s..."), true);
+        return machines;
+    }
+
+    private static int replay(@NotNull CommandContext<CommandSourceStack> context, int repeat) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+        ServerLevel level = source.getLevel();
+        BlockPos pos = BlockPosArgument.getLoadedBlockPos(context, "pos");
+        String name = StringArgumentType.getString(context, "name");
+
+        List<MachineRecording> recordings;
+        try {
+            recordings = MachineRecorder.load(level, name);
+        } catch (IOException e) {
+            throw FAILED_TO_LOAD.create(e.getMessage());
+        }
+
+        for (MachineRecording recording : recordings) {
+            BlockPos machinePos = pos.offset(recording.getPos());
+            TickHistogram timings;
+            try {
+                timings = MachineReplayer.replay(level, machinePos, recording, repeat);
+            } catch (IllegalStateException e) {
+                throw FAILED_TO_REPLAY.create(e.getMessage());
+            }
+            source.sendSuccess(() -> Component.literal(BuiltInRegistries.BLOCK.getKey(recording.getState().getBlock()) + " " + machinePos.toShortString()
+                    + ": " + timings.count() + " updates, avg " + (timings.count() == 0 ? 0 : timings.total() / timings.count() / 1000)
+                    + "µs, p99 " + timings.p99() / 1000 + "µs, max " + timings.max() / 1000 + "µs"), false);
+        }
+        return recordings.size();
+    }
+
+    private static int periodic(@NotNull CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        int levels = 0;
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            MachineTickManager manager = MachineTickManager.getIfPresent(level);
+            if (manager == null) continue;
+            TickHistogram work = manager.getPeriodicWork();
+            if (work.count() == 0) continue;
+            levels++;
+            source.sendSuccess(() -> Component.literal(level.dimension().location() + ": periodic tasks per tick avg "
+                    + String.format("%.2f", (double) work.total() / work.count()) + ", p50 " + work.p50()
+                    + ", p99 " + work.p99() + ", max " + work.max() + " over " + work.count() + " ticks"), false);
+        }
+        if (levels == 0) {
+            source.sendSuccess(() -> Component.literal("No machines have ticked yet"), false);
+        }
+        return levels;
+    }
+
+    private static int recipes(@NotNull CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        source.sendSuccess(() -> Component.literal("Shared cache: " + SharedRecipeCache.size() + " entries, " + SharedRecipeCache.getHits() + " hits, "
+                + SharedRecipeCache.getMisses() + " misses, " + SharedRecipeCache.getRejected() + " rejected"), false);
+        int levels = 0;
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            NegativeRecipeCache negative = NegativeRecipeCache.getIfPresent(level);
+            if (negative == null) continue;
+            levels++;
+            source.sendSuccess(() -> Component.literal(level.dimension().location() + ": negative cache " + negative.size() + " entries, "
+                    + negative.getHits() + " hits, " + negative.getMisses() + " misses"), false);
+        }
+        return levels;
+    }
+}
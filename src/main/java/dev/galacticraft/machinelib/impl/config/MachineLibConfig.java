@@ -43,6 +43,41 @@ public class MachineLibConfig implements Config {
     public boolean enableColoredVanillaFluidNames = true;
     @Expose
     public FluidDisplayMode fluidDisplayMode = FluidDisplayMode.MILLIBUCKET;
+    @Expose
+    public boolean parallelMachineTicking = false;
+    @Expose
+    public int machineLodRadius = 64;
+    @Expose
+    public int machineLodInterval = 1;
+    @Expose
+    public long machineTickBudget = 0;
+    @Expose
+    public int activeStateCooldown = 20;
+    @Expose
+    public boolean asyncRecipeResolution = false;
+    @Expose
+    public long machineWatchdogThreshold = 5_000_000;
+    @Expose
+    public int machineWatchdogInterval = 20;
+    @Expose
+    public boolean steadyStateFastForward = false;
+    @Expose
+    public int steadyStateMaxStride = 100;
+    @Expose
+    public boolean dormantStructureMachines = true;
+    @Expose
+    public boolean indexedRecipeLookup = true;
+    @Expose
+    public int negativeRecipeCacheSize = 1024;
+    @Expose
+    public int sharedRecipeCacheSize = 4096;
+
+    /**
+     * Used by Gson, so that keys missing from the config file keep their default values.
+     */
+    private MachineLibConfig() {
+        this(null);
+    }
 
     public MachineLibConfig(@Nullable File file) {
         this.file = file;
@@ -77,10 +112,165 @@ public void setFluidDisplayMode(FluidDisplayMode value) {
         this.fluidDisplayMode = value;
     }
 
+    @Override
+    public boolean parallelMachineTicking() {
+        return this.parallelMachineTicking;
+    }
+
+    @Override
+    public void setParallelMachineTicking(boolean enabled) {
+        this.parallelMachineTicking = enabled;
+    }
+
+    @Override
+    public int machineLodRadius() {
+        return this.machineLodRadius;
+    }
+
+    @Override
+    public void setMachineLodRadius(int radius) {
+        this.machineLodRadius = radius;
+    }
+
+    @Override
+    public int machineLodInterval() {
+        return this.machineLodInterval;
+    }
+
+    @Override
+    public void setMachineLodInterval(int interval) {
+        this.machineLodInterval = interval;
+    }
+
+    @Override
+    public long machineTickBudget() {
+        return this.machineTickBudget;
+    }
+
+    @Override
+    public void setMachineTickBudget(long nanos) {
+        this.machineTickBudget = nanos;
+    }
+
+    @Override
+    public int activeStateCooldown() {
+        return this.activeStateCooldown;
+    }
+
+    @Override
+    public void setActiveStateCooldown(int ticks) {
+        this.activeStateCooldown = ticks;
+    }
+
+    @Override
+    public boolean asyncRecipeResolution() {
+        return this.asyncRecipeResolution;
+    }
+
+    @Override
+    public void setAsyncRecipeResolution(boolean enabled) {
+        this.asyncRecipeResolution = enabled;
+    }
+
+    @Override
+    public long machineWatchdogThreshold() {
+        return this.machineWatchdogThreshold;
+    }
+
+    @Override
+    public void setMachineWatchdogThreshold(long nanos) {
+        this.machineWatchdogThreshold = nanos;
+    }
+
+    @Override
+    public int machineWatchdogInterval() {
+        return this.machineWatchdogInterval;
+    }
+
+    @Override
+    public void setMachineWatchdogInterval(int interval) {
+        this.machineWatchdogInterval = interval;
+    }
+
+    @Override
+    public boolean steadyStateFastForward() {
+        return this.steadyStateFastForward;
+    }
+
+    @Override
+    public void setSteadyStateFastForward(boolean enabled) {
+        this.steadyStateFastForward = enabled;
+    }
+
+    @Override
+    public int steadyStateMaxStride() {
+        return this.steadyStateMaxStride;
+    }
+
+    @Override
+    public void setSteadyStateMaxStride(int stride) {
+        this.steadyStateMaxStride = stride;
+    }
+
+    @Override
+    public boolean dormantStructureMachines() {
+        return this.dormantStructureMachines;
+    }
+
+    @Override
+    public void setDormantStructureMachines(boolean enabled) {
+        this.dormantStructureMachines = enabled;
+    }
+
+    @Override
+    public boolean indexedRecipeLookup() {
+        return this.indexedRecipeLookup;
+    }
+
+    @Override
+    public void setIndexedRecipeLookup(boolean enabled) {
+        this.indexedRecipeLookup = enabled;
+    }
+
+    @Override
+    public int negativeRecipeCacheSize() {
+        return this.negativeRecipeCacheSize;
+    }
+
+    @Override
+    public void setNegativeRecipeCacheSize(int size) {
+        this.negativeRecipeCacheSize = size;
+    }
+
+    @Override
+    public int sharedRecipeCacheSize() {
+        return this.sharedRecipeCacheSize;
+    }
+
+    @Override
+    public void setSharedRecipeCacheSize(int size) {
+        this.sharedRecipeCacheSize = size;
+    }
+
     @Override
     public void copyFrom(Config config) {
         this.enableColoredVanillaFluidNames = config.enableColoredVanillaFluidNames();
-        this.fluidDisplayMode = config.fluidDisplayMode();
+        this.fluidDisplayMode = config.fluidDisplayMode() != null ? config.fluidDisplayMode() : FluidDisplayMode.MILLIBUCKET;
+        this.parallelMachineTicking = config.parallelMachineTicking();
+        // clamped to the ranges of the config screen, in case the file was edited by hand
+        this.machineLodRadius = Math.max(0, config.machineLodRadius());
+        this.machineLodInterval = Math.max(1, Math.min(config.machineLodInterval(), 100));
+        this.machineTickBudget = Math.max(0, config.machineTickBudget());
+        this.activeStateCooldown = Math.max(0, config.activeStateCooldown());
+        this.asyncRecipeResolution = config.asyncRecipeResolution();
+        this.machineWatchdogThreshold = Math.max(0, config.machineWatchdogThreshold());
+        this.machineWatchdogInterval = Math.max(1, Math.min(config.machineWatchdogInterval(), 200));
+        this.steadyStateFastForward = config.steadyStateFastForward();
+        this.steadyStateMaxStride = Math.max(1, Math.min(config.steadyStateMaxStride(), 1200));
+        this.dormantStructureMachines = config.dormantStructureMachines();
+        this.indexedRecipeLookup = config.indexedRecipeLookup();
+        this.negativeRecipeCacheSize = Math.max(0, config.negativeRecipeCacheSize());
+        this.sharedRecipeCacheSize = Math.max(0, config.sharedRecipeCacheSize());
     }
 
     @Override
@@ -88,7 +278,7 @@ public void reload() {
         if (this.file != null) {
             try (FileReader reader = new FileReader(this.file, StandardCharsets.UTF_8)) {
                 MachineLibConfig config = GSON.fromJson(reader, MachineLibConfig.class);
-                this.copyFrom(config);
+                if (config != null) this.copyFrom(config);
             } catch (IOException e) {
                 MachineLib.LOGGER.error("Failed to read config file!", e);
             }
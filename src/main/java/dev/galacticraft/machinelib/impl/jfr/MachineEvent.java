@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.impl.jfr;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base class of the flight recorder events emitted by machines.
+ * All events are disabled by default, so they cost next to nothing unless a recording explicitly enables them.
+ */
+@ApiStatus.Internal
+@Category({"Minecraft", "MachineLib"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class MachineEvent extends Event {
+    @Label("Machine Type")
+    public String machineType;
+    @Label("X")
+    public int x;
+    @Label("Y")
+    public int y;
+    @Label("Z")
+    public int z;
+
+    /**
+     * Fills in the type and position of the machine that emitted this event.
+     * Should only be called once {@link #shouldCommit()} returned {@code true}.
+     *
+     * @param machine the machine that emitted this event.
+     */
+    public void setMachine(@NotNull MachineBlockEntity machine) {
+        this.machineType = String.valueOf(BuiltInRegistries.BLOCK_ENTITY_TYPE.getKey(machine.getType()));
+        BlockPos pos = machine.getBlockPos();
+        this.x = pos.getX();
+        this.y = pos.getY();
+        this.z = pos.getZ();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.impl.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Emitted whenever a machine pushes resources to its neighbours.
+ * Disabled by default, enable it in a recording profile with {@code machinelib.ResourceTransfer#enabled=true}.
+ */
+@ApiStatus.Internal
+@Name("machinelib.ResourceTransfer")
+@Label("Machine Resource Transfer")
+@Description("A machine pushing resources to adjacent storages")
+public class ResourceTransferEvent extends MachineEvent {
+    @Label("Resource")
+    @Description("The kind of resource transferred (energy, item or fluid)")
+    public String resource;
+    @Label("Amount")
+    @Description("The total amount of resources moved")
+    public long amount;
+    @Label("Faces Tried")
+    @Description("The number of faces that were able to output resources")
+    public int facesTried;
+}
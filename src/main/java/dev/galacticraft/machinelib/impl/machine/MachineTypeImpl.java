@@ -25,6 +25,7 @@
 import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
 import dev.galacticraft.machinelib.api.machine.MachineType;
 import dev.galacticraft.machinelib.api.menu.MachineMenu;
+import dev.galacticraft.machinelib.api.metrics.MachineTimings;
 import dev.galacticraft.machinelib.api.storage.MachineEnergyStorage;
 import dev.galacticraft.machinelib.api.storage.MachineFluidStorage;
 import dev.galacticraft.machinelib.api.storage.MachineItemStorage;
@@ -48,6 +49,7 @@
     private final @NotNull Supplier<MachineEnergyStorage> energySupplier;
     private final @NotNull Supplier<MachineItemStorage> itemSupplier;
     private final @NotNull Supplier<MachineFluidStorage> fluidSupplier;
+    private final @NotNull MachineTimings timings = MachineTimings.create();
 
     public MachineTypeImpl(@NotNull Block block, @NotNull BlockEntityType<Machine> blockEntityType, @NotNull MenuType<Menu> menuType, @NotNull Supplier<MachineEnergyStorage> energySupplier, @NotNull Supplier<MachineItemStorage> itemSupplier, @NotNull Supplier<MachineFluidStorage> fluidSupplier) {
         this.block = block;
@@ -89,4 +91,9 @@ public MachineTypeImpl(@NotNull Block block, @NotNull BlockEntityType<Machine> b
     public @NotNull BlockEntityType<Machine> getBlockEntityType() {
         return this.blockEntityType;
     }
+
+    @Override
+    public @NotNull MachineTimings getTimings() {
+        return this.timings;
+    }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.metrics;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.metrics.MachineTimings;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Samples the cost of individual machines over a fixed window of server ticks, and reports the most expensive ones.
+ * Only one session can run at a time. While no session is running, the tick manager only checks {@link #current()}.
+ *
+ * @see dev.galacticraft.machinelib.impl.command.MachineLibCommands
+ */
+@ApiStatus.Internal
+public final class MachineSampler {
+    private static volatile @Nullable MachineSampler current = null;
+
+    private final CommandSourceStack source;
+    private final int seconds;
+    private final int count;
+    private final int endTick;
+    private final Map<MachineBlockEntity, Sample> samples = new Reference2ObjectOpenHashMap<>();
+    private long updates = 0;
+
+    private MachineSampler(@NotNull CommandSourceStack source, int seconds, int count) {
+        this.source = source;
+        this.seconds = seconds;
+        this.count = count;
+        this.endTick = source.getServer().getTickCount() + seconds * 20;
+    }
+
+    /**
+     * Returns the running sampling session.
+     *
+     * @return the running session, or {@code null} if there is none.
+     */
+    public static @Nullable MachineSampler current() {
+        return current;
+    }
+
+    /**
+     * Starts a new sampling session.
+     *
+     * @param source  the command source to report to once the session is over.
+     * @param seconds the duration of the session, in seconds.
+     * @param count   the number of entries to report per category.
+     * @return whether the session was started, or {@code false} if another session is already running.
+     */
+    public static synchronized boolean start(@NotNull CommandSourceStack source, int seconds, int count) {
+        if (current != null) return false;
+        current = new MachineSampler(source, seconds, count);
+        return true;
+    }
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            MachineSampler sampler = current;
+            if (sampler != null && server.getTickCount() >= sampler.endTick) {
+                current = null;
+                sampler.report();
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> current = null);
+    }
+
+    /**
+     * Records the last update of a machine.
+     * Must only be called on the server thread.
+     *
+     * @param level   the level of the machine.
+     * @param type    the name of the machine's type.
+     * @param machine the machine that was updated.
+     */
+    public void record(@NotNull ServerLevel level, @NotNull String type, @NotNull MachineBlockEntity machine) {
+        Sample sample = this.samples.get(machine);
+        if (sample == null) {
+            sample = new Sample(level.dimension(), machine.getBlockPos(), type, machine);
+            this.samples.put(machine, sample);
+        }
+
+        long nanos = machine.getLastUpdateNanos();
+        sample.updates++;
+        sample.total += nanos;
+        sample.max = Math.max(sample.max, nanos);
+        sample.constant += machine.getLastPhaseNanos(MachineTimings.Phase.CONSTANT);
+        sample.tick += machine.getLastPhaseNanos(MachineTimings.Phase.TICK) + machine.getLastPhaseNanos(MachineTimings.Phase.DISABLED);
+        sample.transfer += machine.getLastPhaseNanos(MachineTimings.Phase.TRANSFER);
+        this.updates++;
+    }
+
+    private void report() {
+        List<Sample> machines = new ArrayList<>(this.samples.values());
+        machines.sort(Comparator.comparingLong((Sample sample) -> sample.total).reversed());
+
+        this.send(Component.literal("Sampled " + machines.size() + " machines (" + this.updates + " updates) over " + this.seconds + "s").withStyle(ChatFormatting.GOLD));
+        if (machines.isEmpty()) return;
+
+        this.send(Component.literal("Most expensive machines:").withStyle(ChatFormatting.YELLOW));
+        for (int i = 0; i < Math.min(this.count, machines.size()); i++) {
+            Sample sample = machines.get(i);
+            long constant = Math.max(0, sample.constant - sample.transfer);
+            this.send(Component.literal((i + 1) + ". " + sample.dimension.location() + " " + sample.pos.toShortString() + " " + sample.type
+                            + ": avg " + formatNanos(sample.total / sample.updates) + ", max " + formatNanos(sample.max)
+                            + " (constant " + percent(constant, sample.total) + ", tick " + percent(sample.tick, sample.total)
+                            + ", transfers " + percent(sample.transfer, sample.total) + ") ")
+                    .append(sample.machine.isRemoved()
+                            ? Component.literal("[removed]").withStyle(ChatFormatting.DARK_GRAY)
+                            : sample.machine.getState().getStatusText(sample.machine.getRedstoneMode())));
+        }
+
+        Map<ChunkKey, Aggregate> chunks = new Object2ObjectOpenHashMap<>();
+        Map<String, Aggregate> types = new Object2ObjectOpenHashMap<>();
+        for (Sample sample : machines) {
+            chunks.computeIfAbsent(new ChunkKey(sample.dimension, new ChunkPos(sample.pos)), k -> new Aggregate()).add(sample);
+            types.computeIfAbsent(sample.type, k -> new Aggregate()).add(sample);
+        }
+
+        this.send(Component.literal("Most expensive chunks:").withStyle(ChatFormatting.YELLOW));
+        this.sendAggregates(chunks, key -> key.dimension().location() + " [" + key.pos().x + ", " + key.pos().z + "]");
+        this.send(Component.literal("Most expensive machine types:").withStyle(ChatFormatting.YELLOW));
+        this.sendAggregates(types, type -> type);
+    }
+
+    private <K> void sendAggregates(@NotNull Map<K, Aggregate> aggregates, @NotNull Function<K, String> name) {
+        List<Map.Entry<K, Aggregate>> entries = new ArrayList<>(aggregates.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<K, Aggregate> entry) -> entry.getValue().total).reversed());
+        for (int i = 0; i < Math.min(this.count, entries.size()); i++) {
+            Aggregate aggregate = entries.get(i).getValue();
+            this.send(Component.literal((i + 1) + ". " + name.apply(entries.get(i).getKey()) + ": " + aggregate.machines + " machines, "
+                    + formatNanos(aggregate.total / this.seconds) + "/s, avg " + formatNanos(aggregate.total / aggregate.updates) + " per update"));
+        }
+    }
+
+    private void send(@NotNull Component component) {
+        this.source.sendSuccess(() -> component, false);
+    }
+
+    private static @NotNull String formatNanos(long nanos) {
+        if (nanos >= 1_000_000) return String.format("%.2fms", nanos / 1_000_000.0);
+        return String.format("%.1fµs", nanos / 1_000.0);
+    }
+
+    private static @NotNull String percent(long part, long total) {
+        return total == 0 ? "0%" : (part * 100 / total) + "%";
+    }
+
+    private static final class Sample {
+        private final ResourceKey<Level> dimension;
+        private final BlockPos pos;
+        private final String type;
+        private final MachineBlockEntity machine;
+        private long updates = 0;
+        private long total = 0;
+        private long max = 0;
+        private long constant = 0;
+        private long tick = 0;
+        private long transfer = 0;
+
+        private Sample(ResourceKey<Level> dimension, BlockPos pos, String type, MachineBlockEntity machine) {
+            this.dimension = dimension;
+            this.pos = pos;
+            this.type = type;
+            this.machine = machine;
+        }
+    }
+
+    private static final class Aggregate {
+        private int machines = 0;
+        private long updates = 0;
+        private long total = 0;
+
+        private void add(@NotNull Sample sample) {
+            this.machines++;
+            this.updates += sample.updates;
+            this.total += sample.total;
+        }
+    }
+
+    private record ChunkKey(ResourceKey<Level> dimension, ChunkPos pos) {
+    }
+}
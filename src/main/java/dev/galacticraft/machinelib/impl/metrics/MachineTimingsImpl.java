@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.impl.metrics;
+
+import dev.galacticraft.machinelib.api.metrics.MachineTimings;
+import dev.galacticraft.machinelib.api.metrics.TickHistogram;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@ApiStatus.Internal
+public final class MachineTimingsImpl implements MachineTimings {
+    private static final Phase[] PHASES = Phase.values();
+
+    private final TickHistogram[] histograms = new TickHistogram[PHASES.length];
+    private final LongAdder activeStateChanges = new LongAdder();
+    private final LongAdder suppressedActiveStateChanges = new LongAdder();
+
+    public MachineTimingsImpl() {
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i] = TickHistogram.create();
+        }
+    }
+
+    @Override
+    public @NotNull TickHistogram get(@NotNull Phase phase) {
+        return this.histograms[phase.ordinal()];
+    }
+
+    @Override
+    public void recordActiveStateChange() {
+        this.activeStateChanges.increment();
+    }
+
+    @Override
+    public void recordSuppressedActiveStateChange() {
+        this.suppressedActiveStateChanges.increment();
+    }
+
+    @Override
+    public long activeStateChanges() {
+        return this.activeStateChanges.sum();
+    }
+
+    @Override
+    public long suppressedActiveStateChanges() {
+        return this.suppressedActiveStateChanges.sum();
+    }
+
+    @Override
+    public void reset() {
+        for (TickHistogram histogram : this.histograms) {
+            histogram.reset();
+        }
+        this.activeStateChanges.reset();
+        this.suppressedActiveStateChanges.reset();
+    }
+}
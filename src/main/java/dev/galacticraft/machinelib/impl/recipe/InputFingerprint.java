@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.recipe;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.RecipeType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable copy of the contents of a crafting inventory, used as the key of recipe caches.
+ * <p>
+ * Two fingerprints are equal if they were taken for the same recipe type and kind of inventory,
+ * and every slot holds the same item, count and tag.
+ * Counts are kept exact rather than bucketed, as recipe implementations may match on stack size
+ * and the recipe found for an inventory depends on every recipe that matches it.
+ * <p>
+ * Fingerprints taken for a lookup share the tags of the inventory's stacks, so taking one is cheap.
+ * They must be {@link #detach() detached} before being stored.
+ */
+@ApiStatus.Internal
+public final class InputFingerprint {
+    private final RecipeType<?> type;
+    private final Class<?> container;
+    private final Item[] items;
+    private final int[] counts;
+    private final @Nullable CompoundTag @Nullable [] tags;
+    private final int hash;
+
+    private InputFingerprint(RecipeType<?> type, Class<?> container, Item[] items, int[] counts, @Nullable CompoundTag @Nullable [] tags) {
+        this.type = type;
+        this.container = container;
+        this.items = items;
+        this.counts = counts;
+        this.tags = tags;
+
+        int hash = System.identityHashCode(type);
+        hash = 31 * hash + container.hashCode();
+        for (int i = 0; i < items.length; i++) {
+            hash = 31 * hash + System.identityHashCode(items[i]);
+            hash = 31 * hash + counts[i];
+            if (tags != null) hash = 31 * hash + Objects.hashCode(tags[i]);
+        }
+        this.hash = hash;
+    }
+
+    /**
+     * Takes a fingerprint of the contents of an inventory.
+     * The fingerprint shares the tags of the inventory's stacks, so it must be {@link #detach() detached} before being stored.
+     *
+     * @param type      the type of recipe being searched for.
+     * @param inventory the crafting inventory.
+     * @return a fingerprint of the inventory.
+     */
+    public static @NotNull InputFingerprint of(@NotNull RecipeType<?> type, @NotNull Container inventory) {
+        int size = inventory.getContainerSize();
+        Item[] items = new Item[size];
+        int[] counts = new int[size];
+        CompoundTag[] tags = null;
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = inventory.getItem(i);
+            items[i] = stack.getItem();
+            counts[i] = stack.getCount();
+            CompoundTag tag = stack.getTag();
+            if (tag != null) {
+                if (tags == null) tags = new CompoundTag[size];
+                tags[i] = tag;
+            }
+        }
+        return new InputFingerprint(type, inventory.getClass(), items, counts, tags);
+    }
+
+    /**
+     * Returns a fingerprint equal to this one that does not share any tags with the inventory it was taken of,
+     * so that it is unaffected by later changes to the inventory.
+     *
+     * @return a detached copy of this fingerprint.
+     */
+    public @NotNull InputFingerprint detach() {
+        if (this.tags == null) return this;
+        CompoundTag[] tags = new CompoundTag[this.tags.length];
+        for (int i = 0; i < tags.length; i++) {
+            if (this.tags[i] != null) tags[i] = this.tags[i].copy();
+        }
+        return new InputFingerprint(this.type, this.container, this.items, this.counts, tags);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InputFingerprint that)) return false;
+        return this.hash == that.hash
+                && this.type == that.type
+                && this.container == that.container
+                && Arrays.equals(this.items, that.items)
+                && Arrays.equals(this.counts, that.counts)
+                && Arrays.equals(this.tags, that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.recipe;
+
+import dev.galacticraft.machinelib.impl.MachineLib;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, least-recently-used set of crafting inventories that match no recipe, shared by every machine in a level.
+ * Machines fed the same unusable items only search the recipes once.
+ * <p>
+ * Caches are cleared when data packs are reloaded. They may be queried off the server thread.
+ *
+ * @see dev.galacticraft.machinelib.api.config.Config#negativeRecipeCacheSize()
+ */
+@ApiStatus.Internal
+public final class NegativeRecipeCache {
+    private static final Map<ServerLevel, NegativeRecipeCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Map<InputFingerprint, Boolean> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<InputFingerprint, Boolean> eldest) {
+            return this.size() > MachineLib.CONFIG.negativeRecipeCacheSize();
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private NegativeRecipeCache() {
+    }
+
+    /**
+     * Returns the cache of a level.
+     *
+     * @param level the level.
+     * @return the cache of the level, or {@code null} if the level is not a server level or the cache is disabled.
+     */
+    public static @Nullable NegativeRecipeCache get(@NotNull Level level) {
+        if (!(level instanceof ServerLevel serverLevel) || MachineLib.CONFIG.negativeRecipeCacheSize() <= 0) return null;
+        return CACHES.computeIfAbsent(serverLevel, k -> new NegativeRecipeCache());
+    }
+
+    public static @Nullable NegativeRecipeCache getIfPresent(@NotNull ServerLevel level) {
+        return CACHES.get(level);
+    }
+
+    public static void register() {
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resources, success) -> CACHES.values().forEach(NegativeRecipeCache::clear));
+        ServerWorldEvents.UNLOAD.register((server, level) -> CACHES.remove(level));
+    }
+
+    /**
+     * Returns whether the given inputs are known to match no recipe, and counts the hit or miss.
+     *
+     * @param fingerprint the fingerprint of the crafting inventory.
+     * @return whether the inputs match no recipe.
+     */
+    public boolean contains(@NotNull InputFingerprint fingerprint) {
+        boolean hit;
+        synchronized (this.entries) {
+            hit = this.entries.get(fingerprint) != null;
+        }
+        (hit ? this.hits : this.misses).increment();
+        return hit;
+    }
+
+    /**
+     * Records that the given inputs match no recipe.
+     *
+     * @param fingerprint the fingerprint of the crafting inventory, detached before it is stored.
+     */
+    public void add(@NotNull InputFingerprint fingerprint) {
+        InputFingerprint key = fingerprint.detach();
+        synchronized (this.entries) {
+            this.entries.put(key, Boolean.TRUE);
+        }
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.recipe;
+
+import dev.galacticraft.machinelib.impl.MachineLib;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.recipe.v1.ingredient.CustomIngredient;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An inverted index of the recipes of a single {@link RecipeType}, mapping items to the recipes they may be an ingredient of.
+ * <p>
+ * Each recipe is indexed under the items of its most selective ingredient (the one matching the fewest items),
+ * as a recipe cannot match unless that ingredient is satisfied by an item in the inventory.
+ * Recipes without ingredients (such as special crafting recipes) and recipes with an ingredient that cannot be enumerated
+ * (including custom ingredients that {@link CustomIngredient#requiresTesting() require testing}) are always tested. Candidates are tested in the same order as {@link RecipeManager#getRecipeFor(RecipeType, Container, Level)},
+ * so the same recipe is found.
+ * <p>
+ * Indices of every recipe type are built when the server starts and whenever data packs are reloaded, so no machine pays for
+ * building one during a tick (unless indexing is enabled while the server is running, in which case they are built on first use).
+ * They are immutable, so they can be queried off the server thread.
+ *
+ * @param <C> the type of inventory the recipe type uses.
+ * @param <R> the type of recipe.
+ * @see dev.galacticraft.machinelib.api.config.Config#indexedRecipeLookup()
+ */
+@ApiStatus.Internal
+public final class RecipeIndex<C extends Container, R extends Recipe<C>> {
+    private static final Map<RecipeType<?>, RecipeIndex<?, ?>> INDICES = new ConcurrentHashMap<>();
+
+    private final @Nullable RecipeManager manager;
+    private final RecipeHolder<R>[] recipes;
+    private final Map<Item, int[]> candidates;
+    private final int[] unindexed;
+
+    @SuppressWarnings("unchecked")
+    private RecipeIndex(@Nullable RecipeManager manager, @NotNull List<RecipeHolder<R>> recipes) {
+        this.manager = manager;
+        this.recipes = recipes.toArray(new RecipeHolder[0]);
+
+        Map<Item, IntArrayList> candidates = new Reference2ObjectOpenHashMap<>();
+        IntArrayList unindexed = new IntArrayList();
+        Set<Item> items = new ReferenceOpenHashSet<>();
+        for (int i = 0; i < this.recipes.length; i++) {
+            if (!collectKeyItems(this.recipes[i].value(), items)) {
+                unindexed.add(i);
+                continue;
+            }
+            for (Item item : items) {
+                candidates.computeIfAbsent(item, k -> new IntArrayList()).add(i);
+            }
+        }
+
+        Reference2ObjectOpenHashMap<Item, int[]> map = new Reference2ObjectOpenHashMap<>(candidates.size());
+        candidates.forEach((item, list) -> map.put(item, list.toIntArray()));
+        this.candidates = map;
+        this.unindexed = unindexed.toIntArray();
+    }
+
+    /**
+     * Builds an index of the given recipes, in the order they should be tested.
+     *
+     * @param recipes the recipes to index.
+     * @return a new index.
+     * @param <C> the type of inventory the recipes use.
+     * @param <R> the type of recipe.
+     */
+    public static <C extends Container, R extends Recipe<C>> @NotNull RecipeIndex<C, R> create(@NotNull List<RecipeHolder<R>> recipes) {
+        return new RecipeIndex<>(null, recipes);
+    }
+
+    /**
+     * Finds the first recipe of the given type that matches the inventory, using the index of the recipe type.
+     * Behaves like {@link RecipeManager#getRecipeFor(RecipeType, Container, Level)}.
+     *
+     * @param manager   the recipe manager of the server.
+     * @param type      the type of recipe to find.
+     * @param inventory the inventory to match recipes against.
+     * @param level     the level.
+     * @return the first matching recipe, or {@code null} if there is none.
+     * @param <C> the type of inventory the recipe type uses.
+     * @param <R> the type of recipe.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Container, R extends Recipe<C>> @Nullable RecipeHolder<R> getRecipeFor(@NotNull RecipeManager manager, @NotNull RecipeType<R> type, @NotNull C inventory, @NotNull Level level) {
+        RecipeIndex<C, R> index = (RecipeIndex<C, R>) INDICES.get(type);
+        if (index == null || index.manager != manager) {
+            index = new RecipeIndex<>(manager, manager.getAllRecipesFor(type));
+            INDICES.put(type, index);
+        }
+        return index.find(inventory, level);
+    }
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> rebuild(server.getRecipeManager()));
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resources, success) -> rebuild(server.getRecipeManager()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> INDICES.clear());
+    }
+
+    /**
+     * Replaces the indices of every recipe type with ones built from the given recipes.
+     *
+     * @param manager the recipe manager of the server.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void rebuild(@NotNull RecipeManager manager) {
+        INDICES.clear();
+        if (!MachineLib.CONFIG.indexedRecipeLookup()) return;
+        for (RecipeType<?> type : BuiltInRegistries.RECIPE_TYPE) {
+            INDICES.put(type, new RecipeIndex<>(manager, manager.getAllRecipesFor((RecipeType) type)));
+        }
+    }
+
+    /**
+     * Collects the items of the most selective ingredient of a recipe.
+     *
+     * @param recipe the recipe.
+     * @param items  the set to collect the items into. Cleared first.
+     * @return whether the recipe can be indexed, or {@code false} if it must always be tested.
+     */
+    private static boolean collectKeyItems(@NotNull Recipe<?> recipe, @NotNull Set<Item> items) {
+        items.clear();
+        ItemStack[] key = null;
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            if (ingredient.isEmpty()) continue; // empty slot in a shaped recipe
+            if (ingredient.requiresTesting()) return false; // the matching stacks may be incomplete
+            ItemStack[] stacks = ingredient.getItems();
+            if (stacks.length == 0) return false;
+            if (key == null || stacks.length < key.length) key = stacks;
+        }
+        if (key == null) return false;
+
+        for (ItemStack stack : key) {
+            items.add(stack.getItem());
+        }
+        return true;
+    }
+
+    /**
+     * Finds the first indexed recipe that matches the inventory.
+     *
+     * @param inventory the inventory to match recipes against.
+     * @param level     the level.
+     * @return the first matching recipe, or {@code null} if there is none.
+     */
+    public @Nullable RecipeHolder<R> find(@NotNull C inventory, @NotNull Level level) {
+        int[] ordinals = this.unindexed;
+        int size = this.unindexed.length;
+        for (int slot = 0; slot < inventory.getContainerSize(); slot++) {
+            ItemStack stack = inventory.getItem(slot);
+            if (stack.isEmpty()) continue;
+            int[] candidates = this.candidates.get(stack.getItem());
+            if (candidates == null) continue;
+            if (ordinals.length < size + candidates.length) {
+                ordinals = IntArrays.grow(ordinals, size + candidates.length, size);
+            }
+            System.arraycopy(candidates, 0, ordinals, size, candidates.length);
+            size += candidates.length;
+        }
+
+        if (ordinals != this.unindexed) {
+            IntArrays.quickSort(ordinals, 0, size);
+        }
+
+        int previous = -1;
+        for (int i = 0; i < size; i++) {
+            int ordinal = ordinals[i];
+            if (ordinal == previous) continue;
+            previous = ordinal;
+            RecipeHolder<R> recipe = this.recipes[ordinal];
+            if (recipe.value().matches(inventory, level)) return recipe;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of recipes that are always tested, as they could not be indexed.
+     *
+     * @return the number of recipes that could not be indexed.
+     */
+    public int getUnindexedCount() {
+        return this.unindexed.length;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.recipe;
+
+import dev.galacticraft.machinelib.impl.MachineLib;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, least-recently-used map from crafting inventories to the recipes they matched, shared by every machine on the server.
+ * Machines processing the same items find their recipe without searching the recipe manager.
+ * <p>
+ * Keys are {@link InputFingerprint exact} (including stack counts and tags), so a hit is the recipe
+ * {@link net.minecraft.world.item.crafting.RecipeManager#getRecipeFor(RecipeType, Container, Level)} would return,
+ * even if several recipes match the inputs. Every hit is still confirmed with a single
+ * {@link Recipe#matches(Container, Level)} call before it is used.
+ * The cache is cleared when data packs are reloaded. It may be queried off the server thread.
+ *
+ * @see dev.galacticraft.machinelib.api.config.Config#sharedRecipeCacheSize()
+ */
+@ApiStatus.Internal
+public final class SharedRecipeCache {
+    private static final Map<InputFingerprint, RecipeHolder<?>> ENTRIES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<InputFingerprint, RecipeHolder<?>> eldest) {
+            return this.size() > MachineLib.CONFIG.sharedRecipeCacheSize();
+        }
+    };
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder REJECTED = new LongAdder();
+
+    private SharedRecipeCache() {
+    }
+
+    public static boolean isEnabled() {
+        return MachineLib.CONFIG.sharedRecipeCacheSize() > 0;
+    }
+
+    public static void register() {
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resources, success) -> clear());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> clear());
+    }
+
+    /**
+     * Returns the recipe last found for the given inputs, if it still matches them.
+     *
+     * @param fingerprint the fingerprint of the crafting inventory.
+     * @param inventory   the crafting inventory.
+     * @param level       the level.
+     * @return the cached recipe, or {@code null} if there is none or it does not match the inventory.
+     * @param <C> the type of inventory the recipe type uses.
+     * @param <R> the type of recipe.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Container, R extends Recipe<C>> @Nullable RecipeHolder<R> get(@NotNull InputFingerprint fingerprint, @NotNull C inventory, @NotNull Level level) {
+        RecipeHolder<R> recipe;
+        synchronized (ENTRIES) {
+            recipe = (RecipeHolder<R>) ENTRIES.get(fingerprint);
+        }
+        if (recipe == null) {
+            MISSES.increment();
+            return null;
+        }
+        if (!recipe.value().matches(inventory, level)) {
+            REJECTED.increment();
+            return null;
+        }
+        HITS.increment();
+        return recipe;
+    }
+
+    /**
+     * Remembers the recipe found for the given inputs.
+     *
+     * @param fingerprint the fingerprint of the crafting inventory, detached before it is stored.
+     * @param recipe      the recipe that matched the inventory.
+     */
+    public static void put(@NotNull InputFingerprint fingerprint, @NotNull RecipeHolder<?> recipe) {
+        InputFingerprint key = fingerprint.detach();
+        synchronized (ENTRIES) {
+            ENTRIES.put(key, recipe);
+        }
+    }
+
+    public static void clear() {
+        synchronized (ENTRIES) {
+            ENTRIES.clear();
+        }
+    }
+
+    public static int size() {
+        synchronized (ENTRIES) {
+            return ENTRIES.size();
+        }
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Returns the number of cached recipes that no longer matched the inputs they were found for.
+     *
+     * @return the number of rejected hits.
+     */
+    public static long getRejected() {
+        return REJECTED.sum();
+    }
+}
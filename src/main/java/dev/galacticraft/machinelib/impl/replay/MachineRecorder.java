@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.replay;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.impl.MachineLib;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the updates of the machines in an area, so that they can be {@link MachineReplayer replayed} later.
+ * Only one recording can run at a time. While no recording is running, machines only check {@link #current()}.
+ * <p>
+ * Recordings are saved to {@code <game directory>/machinelib/recordings/<name>.nbt}.
+ */
+@ApiStatus.Internal
+public final class MachineRecorder {
+    /**
+     * The version of the recording format.
+     */
+    public static final int VERSION = 1;
+
+    private static volatile @Nullable MachineRecorder current = null;
+
+    private final CommandSourceStack source;
+    private final String name;
+    private final BlockPos origin;
+    private final int endTick;
+    /**
+     * The recordings of the selected machines. Not modified while recording, so that machines ticked
+     * on worker threads can look up their own recording.
+     */
+    private final Map<MachineBlockEntity, MachineRecording> recordings;
+
+    private MachineRecorder(@NotNull CommandSourceStack source, @NotNull String name, @NotNull BlockPos origin, int ticks, @NotNull Map<MachineBlockEntity, MachineRecording> recordings) {
+        this.source = source;
+        this.name = name;
+        this.origin = origin;
+        this.endTick = source.getServer().getTickCount() + ticks;
+        this.recordings = recordings;
+    }
+
+    /**
+     * Returns the running recording.
+     *
+     * @return the running recording, or {@code null} if there is none.
+     */
+    public static @Nullable MachineRecorder current() {
+        return current;
+    }
+
+    /**
+     * Starts recording the machines between two corners.
+     *
+     * @param source the command source to report to once the recording is over.
+     * @param level  the level to record.
+     * @param name   the name of the recording file.
+     * @param from   the first corner of the area.
+     * @param to     the second corner of the area.
+     * @param ticks  the number of ticks to record for.
+     * @return the number of machines being recorded, or {@code -1} if another recording is already running.
+     */
+    public static synchronized int start(@NotNull CommandSourceStack source, @NotNull ServerLevel level, @NotNull String name, @NotNull BlockPos from, @NotNull BlockPos to, int ticks) {
+        if (current != null) return -1;
+        Map<MachineBlockEntity, MachineRecording> recordings = new Reference2ObjectLinkedOpenHashMap<>();
+        for (BlockPos pos : BlockPos.betweenClosed(from, to)) {
+            if (level.getBlockEntity(pos) instanceof MachineBlockEntity machine) {
+                recordings.put(machine, MachineRecording.capture(level, machine));
+            }
+        }
+        if (recordings.isEmpty()) return 0;
+
+        BlockPos origin = new BlockPos(Math.min(from.getX(), to.getX()), Math.min(from.getY(), to.getY()), Math.min(from.getZ(), to.getZ()));
+        current = new MachineRecorder(source, name, origin, ticks, recordings);
+        return recordings.size();
+    }
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            MachineRecorder recorder = current;
+            if (recorder != null && server.getTickCount() >= recorder.endTick) {
+                current = null;
+                recorder.finish();
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> current = null);
+    }
+
+    /**
+     * Called before a machine is updated.
+     *
+     * @param machine the machine being updated.
+     * @param ticks   the number of ticks simulated by the update.
+     */
+    public void beforeUpdate(@NotNull MachineBlockEntity machine, int ticks) {
+        MachineRecording recording = this.recordings.get(machine);
+        if (recording != null) recording.beforeUpdate(machine, ticks);
+    }
+
+    /**
+     * Called after a machine was updated.
+     *
+     * @param machine the machine that was updated.
+     */
+    public void afterUpdate(@NotNull MachineBlockEntity machine) {
+        MachineRecording recording = this.recordings.get(machine);
+        if (recording != null) recording.markUpdated(machine);
+    }
+
+    private void finish() {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("Version", VERSION);
+        tag.putString("MachineLibVersion", FabricLoader.getInstance().getModContainer("machinelib")
+                .map(container -> container.getMetadata().getVersion().getFriendlyString()).orElse("unknown"));
+        tag.put("Origin", NbtUtils.writeBlockPos(this.origin));
+        ListTag machines = new ListTag();
+        int frames = 0;
+        for (MachineRecording recording : this.recordings.values()) {
+            machines.add(recording.toTag());
+            frames += recording.getFrames().size();
+        }
+        tag.put("Machines", machines);
+
+        Path path = getPath(this.name);
+        try {
+            Files.createDirectories(path.getParent());
+            try (OutputStream stream = Files.newOutputStream(path)) {
+                NbtIo.writeCompressed(tag, stream);
+            }
+        } catch (IOException e) {
+            MachineLib.LOGGER.error("Failed to save machine recording {}", path, e);
+            this.source.sendFailure(Component.literal("Failed to save machine recording " + path + ": " + e.getMessage()));
+            return;
+        }
+        int total = frames;
+        this.source.sendSuccess(() -> Component.literal("Recorded " + total + " updates of " + machines.size() + " machines to " + path), false);
+    }
+
+    /**
+     * Loads a saved recording.
+     *
+     * @param level the level to resolve the recorded blocks with.
+     * @param name  the name of the recording.
+     * @return the recorded machines, with their positions relative to the origin of the recorded area.
+     * @throws IOException if the recording could not be read or has an unsupported version.
+     */
+    public static @NotNull List<MachineRecording> load(@NotNull ServerLevel level, @NotNull String name) throws IOException {
+        CompoundTag tag;
+        try (InputStream stream = Files.newInputStream(getPath(name))) {
+            tag = NbtIo.readCompressed(stream, NbtAccounter.unlimitedHeap());
+        }
+        if (tag.getInt("Version") != VERSION) {
+            throw new IOException("Unsupported recording version " + tag.getInt("Version"));
+        }
+
+        BlockPos origin = NbtUtils.readBlockPos(tag.getCompound("Origin"));
+        List<MachineRecording> recordings = new ArrayList<>();
+        for (Tag machine : tag.getList("Machines", Tag.TAG_COMPOUND)) {
+            recordings.add(MachineRecording.fromTag((CompoundTag) machine, level.holderLookup(Registries.BLOCK)).relativeTo(origin));
+        }
+        return recordings;
+    }
+
+    private static @NotNull Path getPath(@NotNull String name) {
+        return FabricLoader.getInstance().getGameDir().resolve("machinelib").resolve("recordings").resolve(name + ".nbt");
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.replay;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.HolderGetter;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.LongTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The recorded updates of a single machine: its initial state, the blocks around it,
+ * and the external inputs it received before each update.
+ *
+ * @see MachineRecorder
+ * @see MachineReplayer
+ */
+@ApiStatus.Internal
+public final class MachineRecording {
+    private final BlockPos pos;
+    private final BlockState state;
+    private final CompoundTag initial;
+    private final List<Neighbor> neighbors;
+    private final List<Frame> frames;
+
+    /**
+     * The modification counts of the machine's storages at the end of its last recorded update.
+     */
+    private long energyModifications;
+    private long itemModifications;
+    private long fluidModifications;
+
+    private MachineRecording(BlockPos pos, BlockState state, CompoundTag initial, List<Neighbor> neighbors, List<Frame> frames) {
+        this.pos = pos;
+        this.state = state;
+        this.initial = initial;
+        this.neighbors = neighbors;
+        this.frames = frames;
+    }
+
+    /**
+     * Starts recording a machine, capturing its current state and the blocks adjacent to it.
+     *
+     * @param level   the level of the machine.
+     * @param machine the machine to record.
+     * @return a new recording of the machine.
+     */
+    public static @NotNull MachineRecording capture(@NotNull ServerLevel level, @NotNull MachineBlockEntity machine) {
+        BlockPos pos = machine.getBlockPos();
+        List<Neighbor> neighbors = new ArrayList<>(6);
+        for (Direction direction : Direction.values()) {
+            BlockPos neighbor = pos.relative(direction);
+            BlockEntity blockEntity = level.getBlockEntity(neighbor);
+            neighbors.add(new Neighbor(direction, level.getBlockState(neighbor), blockEntity == null ? null : blockEntity.saveWithoutMetadata()));
+        }
+        MachineRecording recording = new MachineRecording(pos, machine.getBlockState(), machine.saveWithoutMetadata(), neighbors, new ArrayList<>());
+        recording.markUpdated(machine);
+        return recording;
+    }
+
+    /**
+     * Records a frame for an update that is about to start.
+     * The contents of a storage are only recorded if it was modified since the end of the previous update.
+     *
+     * @param machine the machine being updated.
+     * @param ticks   the number of ticks simulated by the update.
+     */
+    void beforeUpdate(@NotNull MachineBlockEntity machine, int ticks) {
+        this.frames.add(new Frame(ticks, machine.getState().isPowered(),
+                machine.energyStorage().getModifications() != this.energyModifications ? machine.energyStorage().createTag() : null,
+                machine.itemStorage().getModifications() != this.itemModifications ? machine.itemStorage().createTag() : null,
+                machine.fluidStorage().getModifications() != this.fluidModifications ? machine.fluidStorage().createTag() : null
+        ));
+    }
+
+    /**
+     * Remembers the state of the machine's storages after an update.
+     *
+     * @param machine the machine that was updated.
+     */
+    void markUpdated(@NotNull MachineBlockEntity machine) {
+        this.energyModifications = machine.energyStorage().getModifications();
+        this.itemModifications = machine.itemStorage().getModifications();
+        this.fluidModifications = machine.fluidStorage().getModifications();
+    }
+
+    public @NotNull BlockPos getPos() {
+        return this.pos;
+    }
+
+    public @NotNull BlockState getState() {
+        return this.state;
+    }
+
+    public @NotNull CompoundTag getInitial() {
+        return this.initial;
+    }
+
+    public @NotNull List<Neighbor> getNeighbors() {
+        return this.neighbors;
+    }
+
+    public @NotNull List<Frame> getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * Returns a copy of this recording with its position relative to the given origin.
+     *
+     * @param origin the origin.
+     * @return the relative recording.
+     */
+    public @NotNull MachineRecording relativeTo(@NotNull BlockPos origin) {
+        return new MachineRecording(this.pos.subtract(origin), this.state, this.initial, this.neighbors, this.frames);
+    }
+
+    public @NotNull CompoundTag toTag() {
+        CompoundTag tag = new CompoundTag();
+        tag.put("Pos", NbtUtils.writeBlockPos(this.pos));
+        tag.put("State", NbtUtils.writeBlockState(this.state));
+        tag.put("Initial", this.initial);
+
+        ListTag neighbors = new ListTag();
+        for (Neighbor neighbor : this.neighbors) {
+            CompoundTag entry = new CompoundTag();
+            entry.putByte("Direction", (byte) neighbor.direction().get3DDataValue());
+            entry.put("State", NbtUtils.writeBlockState(neighbor.state()));
+            if (neighbor.blockEntity() != null) entry.put("BlockEntity", neighbor.blockEntity());
+            neighbors.add(entry);
+        }
+        tag.put("Neighbors", neighbors);
+
+        ListTag frames = new ListTag();
+        for (Frame frame : this.frames) {
+            CompoundTag entry = new CompoundTag();
+            entry.putInt("Ticks", frame.ticks());
+            entry.putBoolean("Powered", frame.powered());
+            if (frame.energy() != null) entry.put("Energy", frame.energy());
+            if (frame.items() != null) entry.put("Items", frame.items());
+            if (frame.fluids() != null) entry.put("Fluids", frame.fluids());
+            frames.add(entry);
+        }
+        tag.put("Frames", frames);
+        return tag;
+    }
+
+    public static @NotNull MachineRecording fromTag(@NotNull CompoundTag tag, @NotNull HolderGetter<Block> blocks) {
+        List<Neighbor> neighbors = new ArrayList<>(6);
+        for (Tag element : tag.getList("Neighbors", Tag.TAG_COMPOUND)) {
+            CompoundTag entry = (CompoundTag) element;
+            neighbors.add(new Neighbor(Direction.from3DDataValue(entry.getByte("Direction")),
+                    NbtUtils.readBlockState(blocks, entry.getCompound("State")),
+                    entry.contains("BlockEntity", Tag.TAG_COMPOUND) ? entry.getCompound("BlockEntity") : null));
+        }
+
+        ListTag frameList = tag.getList("Frames", Tag.TAG_COMPOUND);
+        List<Frame> frames = new ArrayList<>(frameList.size());
+        for (Tag element : frameList) {
+            CompoundTag entry = (CompoundTag) element;
+            frames.add(new Frame(entry.getInt("Ticks"), entry.getBoolean("Powered"),
+                    entry.get("Energy") instanceof LongTag energy ? energy : null,
+                    entry.contains("Items", Tag.TAG_LIST) ? (ListTag) entry.get("Items") : null,
+                    entry.contains("Fluids", Tag.TAG_LIST) ? (ListTag) entry.get("Fluids") : null));
+        }
+
+        return new MachineRecording(NbtUtils.readBlockPos(tag.getCompound("Pos")), NbtUtils.readBlockState(blocks, tag.getCompound("State")),
+                tag.getCompound("Initial"), neighbors, frames);
+    }
+
+    /**
+     * A block adjacent to the recorded machine.
+     *
+     * @param direction   the direction of the block, relative to the machine.
+     * @param state       the state of the block.
+     * @param blockEntity the saved block entity of the block, if it has one.
+     */
+    public record Neighbor(@NotNull Direction direction, @NotNull BlockState state, @Nullable CompoundTag blockEntity) {
+    }
+
+    /**
+     * The external inputs received by the machine before an update.
+     *
+     * @param ticks   the number of ticks simulated by the update.
+     * @param powered whether the machine was receiving a redstone signal.
+     * @param energy  the energy of the machine, if it was changed from the outside since the previous update.
+     * @param items   the items of the machine, if they were changed from the outside since the previous update.
+     * @param fluids  the fluids of the machine, if they were changed from the outside since the previous update.
+     */
+    public record Frame(int ticks, boolean powered, @Nullable LongTag energy, @Nullable ListTag items, @Nullable ListTag fluids) {
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.impl.replay;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.metrics.TickHistogram;
+import dev.galacticraft.machinelib.impl.block.entity.MachineTickManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Replays {@link MachineRecording recorded} machine updates.
+ * <p>
+ * The machine and its recorded neighbors are placed in the given level, and the machine is then updated
+ * through {@code MachineBlockEntity#tickBase}
+ * once per recorded update, with the recorded external inputs applied beforehand.
+ * The placed machines are not ticked by the level, so the replay only depends on the recording.
+ * This works in any server level, including the (headless) game test server.
+ */
+@ApiStatus.Internal
+public final class MachineReplayer {
+    private MachineReplayer() {
+    }
+
+    /**
+     * Replays a recording, replacing the blocks at and around the given position.
+     *
+     * @param level     the level to replay the recording in.
+     * @param pos       the position to place the machine at.
+     * @param recording the recording to replay.
+     * @param repeat    the number of times to replay the recording, starting from the recorded initial state every time.
+     * @return the durations of the replayed updates.
+     * @throws IllegalStateException if the recorded block is not a machine.
+     */
+    public static @NotNull TickHistogram replay(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull MachineRecording recording, int repeat) {
+        TickHistogram timings = TickHistogram.create();
+        ProfilerFiller profiler = level.getProfiler();
+        for (int i = 0; i < repeat; i++) {
+            MachineBlockEntity machine = place(level, pos, recording);
+            for (MachineRecording.Frame frame : recording.getFrames()) {
+                if (frame.energy() != null) machine.energyStorage().readTag(frame.energy());
+                if (frame.items() != null) machine.itemStorage().readTag(frame.items());
+                if (frame.fluids() != null) machine.fluidStorage().readTag(frame.fluids());
+                machine.getState().setPowered(frame.powered());
+
+                long start = System.nanoTime();
+                machine.tickBase(level, pos, level.getBlockState(pos), profiler, frame.ticks());
+                timings.record(System.nanoTime() - start);
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Places a recorded machine and its neighbors in their initial state.
+     *
+     * @param level     the level to place the machine in.
+     * @param pos       the position to place the machine at.
+     * @param recording the recording.
+     * @return the placed machine.
+     */
+    private static @NotNull MachineBlockEntity place(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull MachineRecording recording) {
+        for (MachineRecording.Neighbor neighbor : recording.getNeighbors()) {
+            BlockPos neighborPos = pos.relative(neighbor.direction());
+            level.setBlock(neighborPos, neighbor.state(), Block.UPDATE_CLIENTS);
+            BlockEntity blockEntity = level.getBlockEntity(neighborPos);
+            if (blockEntity != null && neighbor.blockEntity() != null) {
+                blockEntity.load(neighbor.blockEntity());
+            }
+            if (blockEntity instanceof MachineBlockEntity machine) {
+                MachineTickManager.get(level).remove(machine);
+            }
+        }
+
+        level.setBlock(pos, recording.getState(), Block.UPDATE_CLIENTS);
+        if (!(level.getBlockEntity(pos) instanceof MachineBlockEntity machine)) {
+            throw new IllegalStateException("Recorded block " + recording.getState() + " is not a machine");
+        }
+        machine.load(recording.getInitial());
+        MachineTickManager.get(level).remove(machine);
+        return machine;
+    }
+}
@@ -27,7 +27,9 @@
 import dev.galacticraft.machinelib.api.menu.sync.MenuSyncHandler;
 import dev.galacticraft.machinelib.api.storage.ResourceStorage;
 import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import dev.galacticraft.machinelib.api.transfer.InputType;
 import dev.galacticraft.machinelib.impl.menu.sync.ResourceStorageSyncHandler;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
 import net.fabricmc.fabric.api.transfer.v1.transaction.TransactionContext;
@@ -42,12 +44,26 @@
     private long modifications = 1;
     private final LongList transactions = new LongArrayList();
     private Runnable listener;
+    /**
+     * The indices of the slots of each input type, indexed by ordinal.
+     */
+    private final int[][] groups;
 
     public ResourceStorageImpl(@NotNull Slot @NotNull [] slots) {
         super(slots);
         for (Slot slot : slots) {
             slot._setParent(this);
         }
+
+        InputType[] types = InputType.values();
+        this.groups = new int[types.length][];
+        for (InputType type : types) {
+            IntArrayList group = new IntArrayList();
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i].inputType() == type) group.add(i);
+            }
+            this.groups[type.ordinal()] = group.toIntArray();
+        }
     }
 
     @Override
@@ -76,6 +92,20 @@ public long getModifications() {
         return this.modifications;
     }
 
+    /**
+     * Sums the modification counts of the slots of the given type.
+     * Slot counts never decrease (other than when a transaction is aborted, which restores an earlier total),
+     * so the sum only stays the same while none of the slots are modified.
+     */
+    @Override
+    public long getModifications(@NotNull InputType type) {
+        long modifications = 0;
+        for (int slot : this.groups[type.ordinal()]) {
+            modifications += this.slots[slot].getModifications();
+        }
+        return modifications;
+    }
+
     @Override
     public void markModified() {
         this.modifications++;
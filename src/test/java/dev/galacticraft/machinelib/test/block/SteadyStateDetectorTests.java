@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.test.block;
+
+import dev.galacticraft.machinelib.impl.block.entity.SteadyStateDetector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SteadyStateDetectorTests {
+    @Test
+    public void constant() {
+        SteadyStateDetector detector = new SteadyStateDetector();
+        int period = 0;
+        for (int i = 0; i < 100 && period == 0; i++) {
+            period = detector.record(7);
+        }
+        Assertions.assertEquals(1, period);
+    }
+
+    @Test
+    public void constantAfterChange() {
+        SteadyStateDetector detector = new SteadyStateDetector();
+        Assertions.assertEquals(0, detector.record(1));
+        int period = 0;
+        for (int i = 0; i < 100 && period == 0; i++) {
+            period = detector.record(2);
+        }
+        Assertions.assertEquals(1, period);
+    }
+
+    @Test
+    public void cycle() {
+        SteadyStateDetector detector = new SteadyStateDetector();
+        int period = 0;
+        for (int i = 0; i < 1000 && period == 0; i++) {
+            period = detector.record(i % 10 == 0 ? 2 : 1);
+        }
+        Assertions.assertEquals(10, period);
+    }
+
+    @Test
+    public void irregular() {
+        SteadyStateDetector detector = new SteadyStateDetector();
+        for (int run = 1; run < 20; run++) {
+            for (int i = 0; i < run; i++) {
+                Assertions.assertEquals(0, detector.record(run % 2));
+            }
+        }
+    }
+
+    @Test
+    public void reset() {
+        SteadyStateDetector detector = new SteadyStateDetector();
+        for (int i = 0; i < 10; i++) {
+            detector.record(i % 3 == 0 ? 2 : 1);
+        }
+        detector.reset();
+        Assertions.assertEquals(0, detector.record(1));
+        Assertions.assertEquals(0, detector.record(2));
+    }
+}
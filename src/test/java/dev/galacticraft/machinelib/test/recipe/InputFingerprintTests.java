@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.test.recipe;
+
+import dev.galacticraft.machinelib.impl.recipe.InputFingerprint;
+import dev.galacticraft.machinelib.test.JUnitTest;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.RecipeType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class InputFingerprintTests implements JUnitTest {
+    @Test
+    public void equalContents() {
+        InputFingerprint a = InputFingerprint.of(RecipeType.SMELTING, new SimpleContainer(new ItemStack(Items.DIRT, 3)));
+        InputFingerprint b = InputFingerprint.of(RecipeType.SMELTING, new SimpleContainer(new ItemStack(Items.DIRT, 3)));
+        Assertions.assertEquals(a, b);
+        Assertions.assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    public void differentContents() {
+        InputFingerprint dirt = InputFingerprint.of(RecipeType.SMELTING, new SimpleContainer(new ItemStack(Items.DIRT, 3)));
+        Assertions.assertNotEquals(dirt, InputFingerprint.of(RecipeType.SMELTING, new SimpleContainer(new ItemStack(Items.DIRT, 4))));
+        Assertions.assertNotEquals(dirt, InputFingerprint.of(RecipeType.BLASTING, new SimpleContainer(new ItemStack(Items.DIRT, 3))));
+
+        ItemStack named = new ItemStack(Items.DIRT, 3);
+        named.getOrCreateTag().putString("test", "value");
+        Assertions.assertNotEquals(dirt, InputFingerprint.of(RecipeType.SMELTING, new SimpleContainer(named)));
+    }
+
+    @Test
+    public void detachedFromInventory() {
+        ItemStack stack = new ItemStack(Items.DIRT);
+        stack.getOrCreateTag().putInt("value", 1);
+        SimpleContainer container = new SimpleContainer(stack);
+        InputFingerprint before = InputFingerprint.of(RecipeType.SMELTING, container).detach();
+        stack.getOrCreateTag().putInt("value", 2);
+        Assertions.assertNotEquals(before, InputFingerprint.of(RecipeType.SMELTING, container));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.test.recipe;
+
+import dev.galacticraft.machinelib.impl.recipe.RecipeIndex;
+import dev.galacticraft.machinelib.test.JUnitTest;
+import net.fabricmc.fabric.api.recipe.v1.ingredient.DefaultCustomIngredients;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.Container;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.CookingBookCategory;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.SmeltingRecipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RecipeIndexTests implements JUnitTest {
+    private static RecipeHolder<SmeltingRecipe> smelting(String id, Ingredient ingredient) {
+        return new RecipeHolder<>(new ResourceLocation("test", id), new SmeltingRecipe("", CookingBookCategory.MISC, ingredient, new ItemStack(Items.STONE), 0.0f, 200));
+    }
+
+    @Test
+    public void findsMatchingRecipe() {
+        RecipeHolder<SmeltingRecipe> iron = smelting("iron", Ingredient.of(Items.RAW_IRON));
+        RecipeHolder<SmeltingRecipe> gold = smelting("gold", Ingredient.of(Items.RAW_GOLD, Items.GOLD_ORE));
+        RecipeIndex<Container, SmeltingRecipe> index = RecipeIndex.create(List.of(iron, gold));
+
+        Assertions.assertSame(gold, index.find(new SimpleContainer(new ItemStack(Items.GOLD_ORE)), null));
+        Assertions.assertSame(iron, index.find(new SimpleContainer(new ItemStack(Items.RAW_IRON)), null));
+        Assertions.assertNull(index.find(new SimpleContainer(new ItemStack(Items.DIRT)), null));
+        Assertions.assertEquals(0, index.getUnindexedCount());
+    }
+
+    @Test
+    public void preservesRecipeOrder() {
+        RecipeHolder<SmeltingRecipe> first = smelting("first", Ingredient.of(Items.COBBLESTONE, Items.RAW_COPPER));
+        RecipeHolder<SmeltingRecipe> second = smelting("second", Ingredient.of(Items.RAW_COPPER));
+        RecipeIndex<Container, SmeltingRecipe> index = RecipeIndex.create(List.of(first, second));
+
+        Assertions.assertSame(first, index.find(new SimpleContainer(new ItemStack(Items.RAW_COPPER)), null));
+    }
+
+    @Test
+    public void testsUnindexedRecipes() {
+        RecipeHolder<SmeltingRecipe> iron = smelting("iron", Ingredient.of(Items.RAW_IRON));
+        RecipeHolder<SmeltingRecipe> empty = smelting("empty", Ingredient.EMPTY);
+        RecipeIndex<Container, SmeltingRecipe> index = RecipeIndex.create(List.of(iron, empty));
+
+        Assertions.assertEquals(1, index.getUnindexedCount());
+        Assertions.assertSame(empty, index.find(new SimpleContainer(1), null));
+        Assertions.assertSame(iron, index.find(new SimpleContainer(new ItemStack(Items.RAW_IRON)), null));
+    }
+
+    @Test
+    public void testsIngredientsRequiringTesting() {
+        CompoundTag tag = new CompoundTag();
+        tag.putBoolean("test", true);
+        RecipeHolder<SmeltingRecipe> tagged = smelting("tagged", DefaultCustomIngredients.nbt(Ingredient.of(Items.RAW_IRON), tag, true));
+        RecipeIndex<Container, SmeltingRecipe> index = RecipeIndex.create(List.of(tagged));
+
+        Assertions.assertEquals(1, index.getUnindexedCount());
+        ItemStack stack = new ItemStack(Items.RAW_IRON);
+        stack.setTag(tag.copy());
+        Assertions.assertSame(tagged, index.find(new SimpleContainer(stack), null));
+        Assertions.assertNull(index.find(new SimpleContainer(new ItemStack(Items.RAW_IRON)), null));
+    }
+}
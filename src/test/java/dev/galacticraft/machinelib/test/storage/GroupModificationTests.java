@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.test.storage;
+
+import dev.galacticraft.machinelib.api.filter.ResourceFilters;
+import dev.galacticraft.machinelib.api.storage.MachineItemStorage;
+import dev.galacticraft.machinelib.api.storage.slot.ItemResourceSlot;
+import dev.galacticraft.machinelib.api.storage.slot.display.ItemSlotDisplay;
+import dev.galacticraft.machinelib.api.transfer.InputType;
+import dev.galacticraft.machinelib.test.JUnitTest;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GroupModificationTests implements JUnitTest {
+    @Test
+    public void groupsAreIndependent() {
+        MachineItemStorage storage = MachineItemStorage.create(
+                ItemResourceSlot.create(InputType.INPUT, ItemSlotDisplay.create(0, 0), ResourceFilters.any()),
+                ItemResourceSlot.create(InputType.OUTPUT, ItemSlotDisplay.create(0, 0), ResourceFilters.any())
+        );
+        long input = storage.getModifications(InputType.INPUT);
+        long output = storage.getModifications(InputType.OUTPUT);
+        long total = storage.getModifications();
+
+        storage.getSlot(1).insert(Items.GOLD_INGOT, 1);
+        assertEquals(input, storage.getModifications(InputType.INPUT));
+        assertNotEquals(output, storage.getModifications(InputType.OUTPUT));
+        assertNotEquals(total, storage.getModifications());
+
+        output = storage.getModifications(InputType.OUTPUT);
+        storage.getSlot(0).insert(Items.IRON_INGOT, 1);
+        assertNotEquals(input, storage.getModifications(InputType.INPUT));
+        assertEquals(output, storage.getModifications(InputType.OUTPUT));
+    }
+
+    @Test
+    public void emptyGroup() {
+        MachineItemStorage storage = MachineItemStorage.create(ItemResourceSlot.create(InputType.INPUT, ItemSlotDisplay.create(0, 0), ResourceFilters.any()));
+        assertEquals(0, storage.getModifications(InputType.TRANSFER));
+        storage.getSlot(0).insert(Items.IRON_INGOT, 1);
+        assertEquals(0, storage.getModifications(InputType.TRANSFER));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.machinelib.test.storage;
+
+import dev.galacticraft.machinelib.api.util.StorageHelper;
+import org.junit.jupiter.api.Test;
+import team.reborn.energy.api.EnergyStorageUtil;
+import team.reborn.energy.api.base.SimpleEnergyStorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepeatedTransferTests {
+    private static final int TICKS = 8;
+
+    @Test
+    public void sameThroughputAtReducedRate() {
+        assertEquals(transfer(1), transfer(TICKS));
+        assertEquals(TICKS * 10, transfer(TICKS));
+    }
+
+    @Test
+    public void stopsWhenNothingMoves() {
+        SimpleEnergyStorage source = new SimpleEnergyStorage(1000, 0, 1000);
+        source.amount = 25;
+        SimpleEnergyStorage target = new SimpleEnergyStorage(1000, 10, 0);
+        assertEquals(25, StorageHelper.repeatTransfer(1000, () -> EnergyStorageUtil.move(source, target, Long.MAX_VALUE, null)));
+    }
+
+    /**
+     * Pushes energy into a receiver that accepts 10 units per call, over {@link #TICKS} ticks.
+     *
+     * @param interval the number of ticks simulated by each update.
+     * @return the total amount of energy transferred.
+     */
+    private static long transfer(int interval) {
+        SimpleEnergyStorage source = new SimpleEnergyStorage(1000, 0, 1000);
+        source.amount = 1000;
+        SimpleEnergyStorage target = new SimpleEnergyStorage(1000, 10, 0);
+        long moved = 0;
+        for (int tick = 0; tick < TICKS; tick += interval) {
+            moved += StorageHelper.repeatTransfer(interval, () -> EnergyStorageUtil.move(source, target, Long.MAX_VALUE, null));
+        }
+        return moved;
+    }
+}
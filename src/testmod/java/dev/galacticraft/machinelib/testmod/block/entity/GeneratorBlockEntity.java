@@ -30,6 +30,7 @@
 import dev.galacticraft.machinelib.testmod.block.TestModMachineTypes;
 import net.fabricmc.fabric.api.registry.FuelRegistry;
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.profiling.ProfilerFiller;
@@ -47,6 +48,10 @@ public class GeneratorBlockEntity extends MachineBlockEntity {
     public static final int FUEL_SLOT = 1;
 
     public static final int GENERATION_RATE = 250;
+    /**
+     * The generator catches up on at most one hour of missed ticks.
+     */
+    public static final int MAX_CATCH_UP_TICKS = 20 * 60 * 60;
     private final ItemResourceSlot fuelInput;
     private int burnTime = 0;
 
@@ -89,6 +94,58 @@ protected void tickConstant(@NotNull ServerLevel level, @NotNull BlockPos pos, @
         return MachineStatuses.ACTIVE;
     }
 
+    @Override
+    protected @NotNull MachineStatus tick(@NotNull ServerLevel level, @NotNull BlockPos pos, @NotNull BlockState state, @NotNull ProfilerFiller profiler, int ticks) {
+        MachineStatus status = MachineStatuses.IDLE;
+        int remaining = ticks;
+        while (remaining > 0) {
+            // a single tick picks up the next fuel item (if needed)
+            status = this.tick(level, pos, state, profiler);
+            remaining--;
+            if (this.burnTime == 0) {
+                if (status == MachineStatuses.IDLE) break;
+                continue;
+            }
+
+            int burnt = Math.min(remaining, this.burnTime);
+            if (burnt > 0) {
+                this.energyStorage().insert((long) burnt * GENERATION_RATE);
+                this.burnTime -= burnt;
+                remaining -= burnt;
+                status = this.energyStorage().isFull() ? MachineStatuses.OUTPUT_FULL : MachineStatuses.ACTIVE;
+            }
+        }
+        return status;
+    }
+
+    @Override
+    public int getMaxCatchUpTicks() {
+        return MAX_CATCH_UP_TICKS;
+    }
+
+    @Override
+    protected void saveAdditional(CompoundTag nbt) {
+        super.saveAdditional(nbt);
+        nbt.putInt("BurnTime", this.burnTime);
+    }
+
+    @Override
+    public void load(CompoundTag nbt) {
+        super.load(nbt);
+        this.burnTime = nbt.getInt("BurnTime");
+    }
+
+    @Override
+    protected boolean canSleep() {
+        // the generator pushes energy to its neighbours every tick
+        return this.burnTime == 0 && this.energyStorage().isEmpty();
+    }
+
+    @Override
+    public boolean supportsParallelTicking() {
+        return true;
+    }
+
     @Nullable
     @Override
     public AbstractContainerMenu createMenu(int syncId, Inventory inv, Player player) {
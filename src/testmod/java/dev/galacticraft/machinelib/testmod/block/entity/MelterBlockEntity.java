@@ -101,6 +101,17 @@ protected void tickConstant(@NotNull ServerLevel level, @NotNull BlockPos pos, @
         }
     }
 
+    @Override
+    protected boolean canSleep() {
+        // progress decays while idle and lava is pushed to neighbours every tick
+        return this.progress == 0 && this.fluidOutput.isEmpty();
+    }
+
+    @Override
+    public boolean supportsParallelTicking() {
+        return true;
+    }
+
     @Nullable
     @Override
     public AbstractContainerMenu createMenu(int syncId, Inventory inv, Player player) {
@@ -100,6 +100,11 @@ protected void tickConstant(@NotNull ServerLevel level, @NotNull BlockPos pos, @
         return MachineStatuses.ACTIVE;
     }
 
+    @Override
+    public boolean supportsParallelTicking() {
+        return true;
+    }
+
     @Nullable
     @Override
     public AbstractContainerMenu createMenu(int syncId, Inventory inv, Player player) {
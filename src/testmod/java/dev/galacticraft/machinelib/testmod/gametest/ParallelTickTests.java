@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021-2024 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dev.galacticraft.machinelib.testmod.gametest;
+
+import dev.galacticraft.machinelib.api.block.entity.MachineBlockEntity;
+import dev.galacticraft.machinelib.api.gametest.SimpleGameTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.BasicTest;
+import dev.galacticraft.machinelib.api.gametest.annotation.TestSuite;
+import dev.galacticraft.machinelib.api.storage.ResourceStorage;
+import dev.galacticraft.machinelib.api.storage.slot.ResourceSlot;
+import dev.galacticraft.machinelib.api.transfer.ResourceFlow;
+import dev.galacticraft.machinelib.api.transfer.ResourceType;
+import dev.galacticraft.machinelib.api.util.BlockFace;
+import dev.galacticraft.machinelib.impl.Utils;
+import dev.galacticraft.machinelib.impl.block.entity.MachineTickManager;
+import dev.galacticraft.machinelib.testmod.block.TestModMachineTypes;
+import dev.galacticraft.machinelib.testmod.block.entity.GeneratorBlockEntity;
+import dev.galacticraft.machinelib.testmod.block.entity.MelterBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestAssertException;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+@TestSuite("parallel")
+public class ParallelTickTests extends SimpleGameTest {
+    private static final int TICKS = 250;
+
+    @BasicTest(batch = "parallel")
+    public void matchesSerial(GameTestHelper helper) {
+        List<MachineBlockEntity> serial = createIsland(helper, 0);
+        List<MachineBlockEntity> parallel = createIsland(helper, 2);
+
+        MachineTickManager manager = MachineTickManager.get(helper.getLevel());
+        for (int i = 0; i < TICKS; i++) {
+            manager.tickMachines(serial, false);
+            if (manager.tickMachines(parallel, true) != 1) {
+                throw new GameTestAssertException("Machines were not ticked in parallel!");
+            }
+        }
+
+        for (int i = 0; i < serial.size(); i++) {
+            MachineBlockEntity expected = serial.get(i);
+            MachineBlockEntity actual = parallel.get(i);
+            if (expected.energyStorage().getAmount() != actual.energyStorage().getAmount()) {
+                throw new GameTestAssertException(String.format("Energy mismatch at %s (%s / %s)!", actual.getBlockPos(), actual.energyStorage().getAmount(), expected.energyStorage().getAmount()));
+            }
+            assertStorageEquals(expected.itemStorage(), actual.itemStorage(), actual.getBlockPos());
+            assertStorageEquals(expected.fluidStorage(), actual.fluidStorage(), actual.getBlockPos());
+            if (expected.isActive() != actual.isActive()) {
+                throw new GameTestAssertException("Active state mismatch at " + actual.getBlockPos());
+            }
+        }
+    }
+
+    private static @NotNull List<MachineBlockEntity> createIsland(GameTestHelper helper, int z) {
+        BlockPos generatorPos = new BlockPos(0, 2, z);
+        BlockPos melterPos = new BlockPos(1, 2, z);
+        helper.setBlock(generatorPos, TestModMachineTypes.GENERATOR.getBlock());
+        helper.setBlock(melterPos, TestModMachineTypes.MELTER.getBlock());
+        GeneratorBlockEntity generator = (GeneratorBlockEntity) helper.getBlockEntity(generatorPos);
+        MelterBlockEntity melter = (MelterBlockEntity) helper.getBlockEntity(melterPos);
+
+        generator.itemStorage().getSlot(GeneratorBlockEntity.FUEL_SLOT).set(Items.COAL, 2);
+        melter.itemStorage().getSlot(MelterBlockEntity.INPUT_SLOT).set(Items.COBBLESTONE, 2);
+
+        Direction facing = generator.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+        generator.getIOConfig().get(BlockFace.toFace(facing, Direction.EAST)).setOption(ResourceType.ENERGY, ResourceFlow.OUTPUT);
+        facing = melter.getBlockState().getValue(BlockStateProperties.HORIZONTAL_FACING);
+        melter.getIOConfig().get(BlockFace.toFace(facing, Direction.WEST)).setOption(ResourceType.ENERGY, ResourceFlow.INPUT);
+        return List.of(generator, melter);
+    }
+
+    private static <Resource> void assertStorageEquals(ResourceStorage<Resource, ?> expected, ResourceStorage<Resource, ?> actual, BlockPos pos) {
+        for (int i = 0; i < expected.size(); i++) {
+            ResourceSlot<Resource> a = expected.getSlot(i);
+            ResourceSlot<Resource> b = actual.getSlot(i);
+            if (!Objects.equals(a.getResource(), b.getResource()) || a.getAmount() != b.getAmount() || !Utils.tagsEqual(a.getTag(), b.getTag())) {
+                throw new GameTestAssertException(String.format("Slot %s mismatch at %s (%s x%s / %s x%s)!", i, pos, b.getResource(), b.getAmount(), a.getResource(), a.getAmount()));
+            }
+        }
+    }
+}